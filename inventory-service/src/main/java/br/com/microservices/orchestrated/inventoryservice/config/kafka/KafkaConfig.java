@@ -20,7 +20,6 @@ import java.util.Map;
 @Configuration
 @RequiredArgsConstructor
 public class KafkaConfig {
-    private static final Integer PARTITION_COUNT = 1;
     private final Integer REPLICA_COUNT = 1;
 
     @Value("${spring.kafka.bootstrap-servers}")
@@ -41,6 +40,12 @@ public class KafkaConfig {
     @Value("${spring.kafka.topic.inventory-fail}")
     private String inventoryFailTopic;
 
+    @Value("${spring.kafka.topic.stock-changes}")
+    private String stockChangesTopic;
+
+    @Value("${app.kafka.partitions}")
+    private Integer partitionCount;
+
     @Bean
     public ConsumerFactory<String, String> consumerFactory() {
         return new DefaultKafkaConsumerFactory<>(consumerProps());
@@ -82,7 +87,7 @@ public class KafkaConfig {
         return TopicBuilder
                 .name(name)
                 .replicas(REPLICA_COUNT)
-                .partitions(PARTITION_COUNT)
+                .partitions(partitionCount)
                 .build();
     }
 
@@ -101,4 +106,14 @@ public class KafkaConfig {
         return buildTopic(orchestratorTopic);
     }
 
+    @Bean
+    public NewTopic stockChangesTopic() {
+        return TopicBuilder
+                .name(stockChangesTopic)
+                .replicas(REPLICA_COUNT)
+                .partitions(partitionCount)
+                .compact()
+                .build();
+    }
+
 }
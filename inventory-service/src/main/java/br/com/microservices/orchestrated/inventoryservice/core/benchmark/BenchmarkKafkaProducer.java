@@ -0,0 +1,31 @@
+package br.com.microservices.orchestrated.inventoryservice.core.benchmark;
+
+import br.com.microservices.orchestrated.inventoryservice.core.producer.KafkaProducer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+@Slf4j
+@Primary
+@Component
+@Profile("benchmark")
+public class BenchmarkKafkaProducer extends KafkaProducer {
+
+    public BenchmarkKafkaProducer(KafkaTemplate<String, String> kafkaTemplate) {
+        super(kafkaTemplate);
+    }
+
+    @Override
+    public CompletableFuture<?> sendStockChange(String productCode, String payload) {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void sendEvent(String payload) {
+        log.debug("Benchmark: discarding saga event {}", payload);
+    }
+}
@@ -0,0 +1,26 @@
+package br.com.microservices.orchestrated.inventoryservice.core.benchmark;
+
+import br.com.microservices.orchestrated.inventoryservice.core.dto.StockDelta;
+import br.com.microservices.orchestrated.inventoryservice.core.respository.StockRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@Profile("benchmark")
+@RequiredArgsConstructor
+public class ConditionalUpdateStrategy implements DecrementStrategy {
+    private final StockRepository stockRepository;
+
+    @Override
+    public String name() {
+        return "conditional-update";
+    }
+
+    @Override
+    public Outcome reserve(List<StockDelta> lines) {
+        return stockRepository.decrement(lines) ? Outcome.RESERVED : Outcome.OUT_OF_STOCK;
+    }
+}
@@ -0,0 +1,310 @@
+package br.com.microservices.orchestrated.inventoryservice.core.benchmark;
+
+import br.com.microservices.orchestrated.inventoryservice.core.benchmark.DecrementStrategy.Outcome;
+import br.com.microservices.orchestrated.inventoryservice.core.dto.ConsumedPosition;
+import br.com.microservices.orchestrated.inventoryservice.core.dto.Event;
+import br.com.microservices.orchestrated.inventoryservice.core.dto.Order;
+import br.com.microservices.orchestrated.inventoryservice.core.dto.OrderProducts;
+import br.com.microservices.orchestrated.inventoryservice.core.dto.Product;
+import br.com.microservices.orchestrated.inventoryservice.core.dto.StockDelta;
+import br.com.microservices.orchestrated.inventoryservice.core.enums.EStockChangeReason;
+import br.com.microservices.orchestrated.inventoryservice.core.service.InventoryService;
+import br.com.microservices.orchestrated.inventoryservice.core.stock.HotStockEngine;
+import br.com.microservices.orchestrated.inventoryservice.core.stock.ShardedStockCounter;
+import br.com.microservices.orchestrated.inventoryservice.core.stock.StockSnapshot;
+import br.com.microservices.orchestrated.inventoryservice.core.stock.WarehouseAllocator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+import static br.com.microservices.orchestrated.inventoryservice.core.enums.ESagaStatus.SUCCESS;
+
+@Slf4j
+@Component
+@Profile("benchmark")
+@RequiredArgsConstructor
+public class ContentionBenchmark implements ApplicationRunner {
+    private static final String SKU_PREFIX = "BENCHMARK_SKU_";
+    private static final String SERVICE_STRATEGY = "inventory-service";
+    private static final String SERVICE_TOPIC = "benchmark-contention";
+
+    private final List<DecrementStrategy> strategies;
+    private final InventoryService inventoryService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final HotStockEngine hotStockEngine;
+    private final ShardedStockCounter shardedStockCounter;
+    private final WarehouseAllocator warehouseAllocator;
+    private final StockSnapshot stockSnapshot;
+
+    @Value("${app.inventory.warehouse.priority}")
+    private String[] warehousePriority;
+
+    @Value("${app.benchmark.threads}")
+    private int threads;
+
+    @Value("${app.benchmark.contention.strategies}")
+    private String[] strategyNames;
+
+    @Value("${app.benchmark.contention.skus}")
+    private int skus;
+
+    @Value("${app.benchmark.contention.zipf-exponent}")
+    private double zipfExponent;
+
+    @Value("${app.benchmark.contention.orders}")
+    private int orders;
+
+    @Value("${app.benchmark.contention.max-lines}")
+    private int maxLines;
+
+    @Value("${app.benchmark.contention.max-quantity}")
+    private int maxQuantity;
+
+    @Value("${app.benchmark.contention.initial-stock}")
+    private int initialStock;
+
+    @Value("${app.benchmark.contention.max-retries}")
+    private int maxRetries;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        var sampler = new ZipfSampler(skus, zipfExponent);
+        log.info("Contention benchmark: {} threads, {} orders, {} SKUs, zipf s={}, up to {} lines x {} units, {} initial stock",
+                threads, orders, skus, zipfExponent, maxLines, maxQuantity, initialStock);
+        if (Arrays.asList(strategyNames).contains(SERVICE_STRATEGY)
+                && hotStockEngine.productCodes().stream().anyMatch(productCode -> productCode.startsWith(SKU_PREFIX))) {
+            throw new IllegalStateException("Benchmark SKUs cannot be configured as hot SKUs for the "
+                    + SERVICE_STRATEGY + " strategy");
+        }
+        var results = new ArrayList<Result>();
+        for (var name : strategyNames) {
+            results.add(SERVICE_STRATEGY.equals(name)
+                    ? execute(name, sampler, this::reserveThroughService)
+                    : execute(name, sampler, (lines, index) -> reserveWithRetries(findStrategy(name), lines)));
+        }
+        log.info(String.format("%-20s %10s %10s %10s %12s %10s %10s %10s %10s",
+                "strategy", "reserved", "rejected", "conflicts", "orders/s", "p50 ms", "p99 ms", "oversold", "lost"));
+        results.forEach(result -> log.info(String.format("%-20s %10d %10d %10d %12.1f %10.2f %10.2f %10d %10d",
+                result.name(), result.reserved(), result.rejected(), result.conflicts(), result.throughput(),
+                result.p50Millis(), result.p99Millis(), result.oversold(), result.lost())));
+        transactionTemplate.executeWithoutResult(status -> cleanup());
+        reloadEngines();
+    }
+
+    private Result execute(String name, ZipfSampler sampler,
+                           BiFunction<List<StockDelta>, Integer, Outcome> action) throws InterruptedException {
+        seed();
+        var reservedUnits = new AtomicLongArray(skus);
+        var reserved = new LongAdder();
+        var rejected = new LongAdder();
+        var conflicts = new LongAdder();
+        var latencies = new long[orders];
+        var nextOrder = new AtomicInteger();
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(threads);
+
+        for (var i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                int index;
+                while ((index = nextOrder.getAndIncrement()) < orders) {
+                    var lines = randomOrder(sampler);
+                    var began = System.nanoTime();
+                    var outcome = action.apply(lines, index);
+                    latencies[index] = System.nanoTime() - began;
+                    if (outcome == Outcome.RESERVED) {
+                        reserved.increment();
+                        lines.forEach(line -> reservedUnits.addAndGet(indexOf(line.productCode()), line.quantity()));
+                    } else {
+                        rejected.increment();
+                        if (outcome == Outcome.CONFLICT) {
+                            conflicts.increment();
+                        }
+                    }
+                }
+            });
+        }
+        var began = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.HOURS);
+        var elapsedSeconds = (System.nanoTime() - began) / 1_000_000_000.0;
+
+        var oversold = 0L;
+        var lost = 0L;
+        var finalStock = findStock(SERVICE_STRATEGY.equals(name));
+        for (var i = 0; i < skus; i++) {
+            var sold = reservedUnits.get(i);
+            oversold += Math.max(0, sold - initialStock);
+            lost += Math.max(0, sold - (initialStock - finalStock[i]));
+        }
+        Arrays.sort(latencies);
+        return new Result(name, reserved.sum(), rejected.sum(), conflicts.sum(), orders / elapsedSeconds,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), oversold, lost);
+    }
+
+    private Outcome reserveWithRetries(DecrementStrategy strategy, List<StockDelta> lines) {
+        for (var attempt = 0; attempt <= maxRetries; attempt++) {
+            Outcome outcome;
+            try {
+                outcome = transactionTemplate.execute(status -> {
+                    var result = strategy.reserve(lines);
+                    if (result != Outcome.RESERVED) {
+                        status.setRollbackOnly();
+                    }
+                    return result;
+                });
+            } catch (Exception e) {
+                outcome = Outcome.CONFLICT;
+            }
+            if (outcome != Outcome.CONFLICT) {
+                return outcome;
+            }
+        }
+        return Outcome.CONFLICT;
+    }
+
+    private Outcome reserveThroughService(List<StockDelta> lines, int index) {
+        var products = new ArrayList<OrderProducts>(lines.size());
+        lines.forEach(line -> products.add(new OrderProducts(new Product(line.productCode(), 1.0), line.quantity())));
+        var transactionId = UUID.randomUUID().toString();
+        var event = Event
+                .builder()
+                .id(UUID.randomUUID().toString())
+                .transactionId(transactionId)
+                .payload(Order
+                        .builder()
+                        .id(UUID.randomUUID().toString())
+                        .transactionId(transactionId)
+                        .products(products)
+                        .createdAt(LocalDateTime.now())
+                        .build())
+                .createdAt(LocalDateTime.now())
+                .build();
+        inventoryService.updateInventory(event, new ConsumedPosition(SERVICE_TOPIC, 0, index));
+        return event.getStatus() == SUCCESS ? Outcome.RESERVED : Outcome.OUT_OF_STOCK;
+    }
+
+    private List<StockDelta> randomOrder(ZipfSampler sampler) {
+        var random = ThreadLocalRandom.current();
+        var quantities = new TreeMap<String, Integer>();
+        var lineCount = random.nextInt(1, maxLines + 1);
+        for (var i = 0; i < lineCount; i++) {
+            quantities.merge(skuCode(sampler.next()), random.nextInt(1, maxQuantity + 1), Integer::sum);
+        }
+        var lines = new ArrayList<StockDelta>(quantities.size());
+        quantities.forEach((productCode, quantity) -> lines.add(new StockDelta(productCode, quantity)));
+        return lines;
+    }
+
+    private DecrementStrategy findStrategy(String name) {
+        return strategies
+                .stream()
+                .filter(strategy -> strategy.name().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown benchmark strategy: " + name));
+    }
+
+    private void seed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            cleanup();
+            var rows = new ArrayList<Object[]>(skus);
+            for (var i = 0; i < skus; i++) {
+                rows.add(new Object[]{skuCode(i), initialStock});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO inventory (product_code, available) VALUES (?, ?)", rows);
+            if (warehouseAllocator.isEnabled()) {
+                jdbcTemplate.batchUpdate("INSERT INTO warehouse_stock (warehouse_code, product_code, available) VALUES (?, ?, ?)",
+                        rows.stream().map(row -> new Object[]{warehousePriority[0], row[0], row[1]}).toList());
+            }
+            if (shardedStockCounter.isEnabled()) {
+                shardedStockCounter.seedMissing();
+            }
+        });
+        reloadEngines();
+    }
+
+    private void reloadEngines() {
+        if (warehouseAllocator.isEnabled()) {
+            warehouseAllocator.reload(skuCodes());
+        }
+        stockSnapshot.refresh(EStockChangeReason.RECONCILIATION);
+    }
+
+    private void cleanup() {
+        jdbcTemplate.update("DELETE FROM order_inventory WHERE product_code LIKE ?", SKU_PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM warehouse_stock WHERE product_code LIKE ?", SKU_PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM inventory_shard WHERE product_code LIKE ?", SKU_PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM inventory WHERE product_code LIKE ?", SKU_PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM consumer_offset WHERE topic = ?", SERVICE_TOPIC);
+    }
+
+    private long[] findStock(boolean throughService) {
+        var stock = new long[skus];
+        jdbcTemplate.query("SELECT product_code, available FROM inventory WHERE product_code LIKE ?",
+                resultSet -> {
+                    stock[indexOf(resultSet.getString("product_code"))] = resultSet.getInt("available");
+                }, SKU_PREFIX + "%");
+        if (throughService && shardedStockCounter.isEnabled()) {
+            shardedStockCounter
+                    .findAvailable(skuCodes())
+                    .forEach((productCode, available) -> stock[indexOf(productCode)] = available);
+        }
+        return stock;
+    }
+
+    private List<String> skuCodes() {
+        var codes = new ArrayList<String>(skus);
+        for (var i = 0; i < skus; i++) {
+            codes.add(skuCode(i));
+        }
+        return codes;
+    }
+
+    private String skuCode(int index) {
+        return String.format("%s%05d", SKU_PREFIX, index);
+    }
+
+    private int indexOf(String productCode) {
+        return Integer.parseInt(productCode.substring(SKU_PREFIX.length()));
+    }
+
+    private double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        var index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private record Result(String name, long reserved, long rejected, long conflicts, double throughput,
+                          double p50Millis, double p99Millis, long oversold, long lost) {
+    }
+}
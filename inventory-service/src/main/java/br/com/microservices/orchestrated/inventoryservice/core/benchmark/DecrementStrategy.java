@@ -0,0 +1,18 @@
+package br.com.microservices.orchestrated.inventoryservice.core.benchmark;
+
+import br.com.microservices.orchestrated.inventoryservice.core.dto.StockDelta;
+
+import java.util.List;
+
+public interface DecrementStrategy {
+
+    enum Outcome {
+        RESERVED,
+        OUT_OF_STOCK,
+        CONFLICT
+    }
+
+    String name();
+
+    Outcome reserve(List<StockDelta> lines);
+}
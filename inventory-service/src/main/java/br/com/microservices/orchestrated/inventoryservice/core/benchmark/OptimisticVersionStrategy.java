@@ -0,0 +1,47 @@
+package br.com.microservices.orchestrated.inventoryservice.core.benchmark;
+
+import br.com.microservices.orchestrated.inventoryservice.core.dto.StockDelta;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@Profile("benchmark")
+@RequiredArgsConstructor
+public class OptimisticVersionStrategy implements DecrementStrategy {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public String name() {
+        return "optimistic-version";
+    }
+
+    @Override
+    public Outcome reserve(List<StockDelta> lines) {
+        var rows = lines.stream()
+                .map(line -> jdbcTemplate.queryForMap(
+                        "SELECT available, xmin::text AS version FROM inventory WHERE product_code = ?", line.productCode()))
+                .toList();
+        for (var i = 0; i < lines.size(); i++) {
+            if (((Number) rows.get(i).get("available")).intValue() < lines.get(i).quantity()) {
+                return Outcome.OUT_OF_STOCK;
+            }
+        }
+        for (var i = 0; i < lines.size(); i++) {
+            var line = lines.get(i);
+            var version = (String) rows.get(i).get("version");
+            var updated = jdbcTemplate.update("""
+                            UPDATE inventory SET available = available - ?
+                            WHERE product_code = ? AND xmin::text = ?
+                            """,
+                    line.quantity(), line.productCode(), version);
+            if (updated == 0) {
+                return Outcome.CONFLICT;
+            }
+        }
+        return Outcome.RESERVED;
+    }
+}
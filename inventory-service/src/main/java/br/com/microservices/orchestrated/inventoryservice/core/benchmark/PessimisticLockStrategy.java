@@ -0,0 +1,39 @@
+package br.com.microservices.orchestrated.inventoryservice.core.benchmark;
+
+import br.com.microservices.orchestrated.inventoryservice.core.dto.StockDelta;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@Profile("benchmark")
+@RequiredArgsConstructor
+public class PessimisticLockStrategy implements DecrementStrategy {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public String name() {
+        return "select-for-update";
+    }
+
+    @Override
+    public Outcome reserve(List<StockDelta> lines) {
+        var available = new int[lines.size()];
+        for (var i = 0; i < lines.size(); i++) {
+            available[i] = jdbcTemplate.queryForObject(
+                    "SELECT available FROM inventory WHERE product_code = ? FOR UPDATE", Integer.class,
+                    lines.get(i).productCode());
+            if (available[i] < lines.get(i).quantity()) {
+                return Outcome.OUT_OF_STOCK;
+            }
+        }
+        for (var i = 0; i < lines.size(); i++) {
+            jdbcTemplate.update("UPDATE inventory SET available = ? WHERE product_code = ?",
+                    available[i] - lines.get(i).quantity(), lines.get(i).productCode());
+        }
+        return Outcome.RESERVED;
+    }
+}
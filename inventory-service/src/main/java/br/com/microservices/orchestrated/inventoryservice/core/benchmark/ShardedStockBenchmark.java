@@ -0,0 +1,90 @@
+package br.com.microservices.orchestrated.inventoryservice.core.benchmark;
+
+import br.com.microservices.orchestrated.inventoryservice.core.respository.ShardedStockRepository;
+import br.com.microservices.orchestrated.inventoryservice.core.stock.ShardedStockCounter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Component
+@Profile("benchmark")
+@RequiredArgsConstructor
+public class ShardedStockBenchmark implements ApplicationRunner {
+    private static final String PRODUCT_CODE = "BENCHMARK_HOT_SKU";
+    private static final int INITIAL_STOCK = 1_000_000_000;
+
+    private final ShardedStockCounter shardedStockCounter;
+    private final ShardedStockRepository shardedStockRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.benchmark.threads}")
+    private int threads;
+
+    @Value("${app.benchmark.duration-seconds}")
+    private long durationSeconds;
+
+    @Value("${app.benchmark.shard-counts}")
+    private int[] shardCounts;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        log.info("Sharded stock benchmark: {} threads, {}s per run, one hot SKU", threads, durationSeconds);
+        for (var shards : shardCounts) {
+            var result = runWith(shards);
+            log.info("K={} reservations={} failures={} throughput={}/s",
+                    shards, result.reserved(), result.failed(), String.format("%.1f", result.perSecond()));
+        }
+        transactionTemplate.executeWithoutResult(status -> shardedStockRepository.delete(PRODUCT_CODE));
+    }
+
+    private Result runWith(int shards) throws InterruptedException {
+        transactionTemplate.executeWithoutResult(status ->
+                shardedStockRepository.reset(PRODUCT_CODE, shards, INITIAL_STOCK));
+
+        var reserved = new LongAdder();
+        var failed = new LongAdder();
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(threads);
+        var deadline = new long[1];
+        for (var i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                while (System.nanoTime() < deadline[0]) {
+                    try {
+                        var done = transactionTemplate.execute(status ->
+                                shardedStockCounter.decrement(PRODUCT_CODE, 1, shards));
+                        (Boolean.TRUE.equals(done) ? reserved : failed).increment();
+                    } catch (Exception e) {
+                        failed.increment();
+                    }
+                }
+            });
+        }
+        var began = System.nanoTime();
+        deadline[0] = began + TimeUnit.SECONDS.toNanos(durationSeconds);
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(durationSeconds + 30, TimeUnit.SECONDS);
+        var elapsed = (System.nanoTime() - began) / 1_000_000_000.0;
+        return new Result(reserved.sum(), failed.sum(), reserved.sum() / elapsed);
+    }
+
+    private record Result(long reserved, long failed, double perSecond) {
+    }
+}
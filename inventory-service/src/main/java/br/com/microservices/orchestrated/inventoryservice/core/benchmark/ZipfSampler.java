@@ -0,0 +1,25 @@
+package br.com.microservices.orchestrated.inventoryservice.core.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class ZipfSampler {
+    private final double[] cumulative;
+
+    public ZipfSampler(int size, double exponent) {
+        cumulative = new double[size];
+        var total = 0.0;
+        for (var rank = 1; rank <= size; rank++) {
+            total += 1.0 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = total;
+        }
+        for (var i = 0; i < size; i++) {
+            cumulative[i] /= total;
+        }
+    }
+
+    public int next() {
+        var index = Arrays.binarySearch(cumulative, ThreadLocalRandom.current().nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+}
@@ -1,27 +1,43 @@
 package br.com.microservices.orchestrated.inventoryservice.core.consumer;
 
+import br.com.microservices.orchestrated.inventoryservice.core.dto.ConsumedPosition;
+import br.com.microservices.orchestrated.inventoryservice.core.service.ConsumerOffsetService;
+import br.com.microservices.orchestrated.inventoryservice.core.service.HoldService;
 import br.com.microservices.orchestrated.inventoryservice.core.service.InventoryService;
 import br.com.microservices.orchestrated.inventoryservice.core.utils.JsonUtil;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.Map;
+
 @Slf4j
 @Component
 @AllArgsConstructor
-public class InventoryConsumer {
+public class InventoryConsumer implements ConsumerSeekAware {
     private final InventoryService inventoryService;
     private final JsonUtil jsonUtil;
+    private final ConsumerOffsetService consumerOffsetService;
+    private final HoldService holdService;
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.inventory-success}"
     )
-    public void consumeInventorySuccessEvent(String payload) {
-        log.info("Receiving event {} from inventory-success topic", payload);
-        var event = jsonUtil.toEvent(payload);
-        inventoryService.updateInventory(event);
+    public void consumeInventorySuccessEvent(ConsumerRecord<String, String> record) {
+        var position = ConsumedPosition.of(record);
+        if (consumerOffsetService.isProcessed(position)) {
+            log.info("Skipping already processed record {}", position);
+            return;
+        }
+        log.info("Receiving event {} from inventory-success topic", record.value());
+        var event = jsonUtil.toEvent(record.value());
+        inventoryService.updateInventory(event, position);
         log.info(event.toString());
     }
 
@@ -29,10 +45,35 @@ public class InventoryConsumer {
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.inventory-fail}"
     )
-    public void consumeInventoryFailEvent(String payload) {
-        log.info("Receiving event {} from inventory-fail topic", payload);
-        var event = jsonUtil.toEvent(payload);
-        inventoryService.rollBackInventory(event);
+    public void consumeInventoryFailEvent(ConsumerRecord<String, String> record) {
+        var position = ConsumedPosition.of(record);
+        if (consumerOffsetService.isProcessed(position)) {
+            log.info("Skipping already processed record {}", position);
+            return;
+        }
+        log.info("Receiving event {} from inventory-fail topic", record.value());
+        var event = jsonUtil.toEvent(record.value());
+        inventoryService.rollBackInventory(event, position);
         log.info(event.toString());
     }
+
+    @KafkaListener(
+            groupId = "${app.inventory.hold.confirm-group-id}",
+            topics = "${spring.kafka.topic.notify-ending}"
+    )
+    public void consumeNotifyEndingEvent(String payload) {
+        log.info("Receiving ending notification event {} from notify-ending topic", payload);
+        var event = jsonUtil.toEvent(payload);
+        holdService.confirm(event);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        consumerOffsetService.seekToStoredOffsets(assignments, callback);
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        consumerOffsetService.forget(partitions);
+    }
 }
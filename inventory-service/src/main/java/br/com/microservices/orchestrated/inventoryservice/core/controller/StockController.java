@@ -0,0 +1,63 @@
+package br.com.microservices.orchestrated.inventoryservice.core.controller;
+
+import br.com.microservices.orchestrated.inventoryservice.core.dto.RestockResult;
+import br.com.microservices.orchestrated.inventoryservice.core.dto.StockLevel;
+import br.com.microservices.orchestrated.inventoryservice.core.enums.ERestockMode;
+import br.com.microservices.orchestrated.inventoryservice.core.service.RestockService;
+import br.com.microservices.orchestrated.inventoryservice.core.service.StockQueryService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.InputStream;
+import java.util.List;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping("/api/stock")
+public class StockController {
+    private final StockQueryService stockQueryService;
+    private final RestockService restockService;
+
+    @GetMapping("/{productCode}")
+    public ResponseEntity<StockLevel> findByProductCode(@PathVariable String productCode, WebRequest request) {
+        var level = stockQueryService.findByProductCode(productCode);
+        var eTag = stockQueryService.eTag(level);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(eTag).body(level);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<StockLevel>> findByProductCodes(@RequestParam List<String> productCodes, WebRequest request) {
+        var levels = stockQueryService.findByProductCodes(productCodes);
+        var eTag = stockQueryService.eTag(levels);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(eTag).body(levels);
+    }
+
+    @PostMapping(value = "/restock", consumes = "text/csv")
+    public RestockResult restockCsv(InputStream body,
+                                    @RequestParam(defaultValue = "ADD") ERestockMode mode,
+                                    @RequestParam(defaultValue = "true") boolean header,
+                                    @RequestParam(required = false) String warehouseCode) {
+        return restockService.importCsv(body, mode, header, warehouseCode);
+    }
+
+    @PostMapping(value = "/restock", consumes = "application/x-ndjson")
+    public RestockResult restockNdjson(InputStream body,
+                                       @RequestParam(defaultValue = "ADD") ERestockMode mode,
+                                       @RequestParam(required = false) String warehouseCode) {
+        return restockService.importNdjson(body, mode, warehouseCode);
+    }
+}
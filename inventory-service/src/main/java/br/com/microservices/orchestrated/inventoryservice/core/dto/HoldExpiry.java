@@ -0,0 +1,6 @@
+package br.com.microservices.orchestrated.inventoryservice.core.dto;
+
+import java.time.LocalDateTime;
+
+public record HoldExpiry(String transactionId, LocalDateTime expiresAt) {
+}
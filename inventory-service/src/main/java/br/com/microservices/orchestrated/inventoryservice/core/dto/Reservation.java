@@ -0,0 +1,7 @@
+package br.com.microservices.orchestrated.inventoryservice.core.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record Reservation(Map<String, Integer> remaining, List<WarehouseAllocation> allocations) {
+}
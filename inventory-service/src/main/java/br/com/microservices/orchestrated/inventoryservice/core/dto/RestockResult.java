@@ -0,0 +1,19 @@
+package br.com.microservices.orchestrated.inventoryservice.core.dto;
+
+import br.com.microservices.orchestrated.inventoryservice.core.enums.ERestockMode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestockResult {
+    private ERestockMode mode;
+    private long rows;
+    private long products;
+    private long hotProducts;
+    private long elapsedMs;
+}
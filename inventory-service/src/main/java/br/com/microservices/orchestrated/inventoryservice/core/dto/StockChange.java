@@ -0,0 +1,22 @@
+package br.com.microservices.orchestrated.inventoryservice.core.dto;
+
+import br.com.microservices.orchestrated.inventoryservice.core.enums.EStockChangeReason;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockChange {
+    private String productCode;
+    private int available;
+    private int delta;
+    private long version;
+    private EStockChangeReason reason;
+    private LocalDateTime changedAt;
+}
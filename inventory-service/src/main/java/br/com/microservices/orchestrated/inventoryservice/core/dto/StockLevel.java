@@ -0,0 +1,4 @@
+package br.com.microservices.orchestrated.inventoryservice.core.dto;
+
+public record StockLevel(String productCode, int available, long version) {
+}
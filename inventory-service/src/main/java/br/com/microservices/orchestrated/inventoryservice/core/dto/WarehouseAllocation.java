@@ -0,0 +1,4 @@
+package br.com.microservices.orchestrated.inventoryservice.core.dto;
+
+public record WarehouseAllocation(String warehouseCode, String productCode, int quantity) {
+}
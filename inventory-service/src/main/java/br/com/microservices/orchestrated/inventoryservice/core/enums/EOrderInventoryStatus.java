@@ -0,0 +1,8 @@
+package br.com.microservices.orchestrated.inventoryservice.core.enums;
+
+public enum EOrderInventoryStatus {
+    HELD,
+    CONFIRMED,
+    RELEASED,
+    EXPIRED
+}
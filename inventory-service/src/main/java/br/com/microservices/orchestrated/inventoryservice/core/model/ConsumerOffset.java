@@ -0,0 +1,35 @@
+package br.com.microservices.orchestrated.inventoryservice.core.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "consumer_offset")
+public class ConsumerOffset {
+    @Id
+    private String id;
+
+    @Column(nullable = false)
+    private String groupId;
+
+    @Column(nullable = false)
+    private String topic;
+
+    @Column(nullable = false)
+    private int partitionNumber;
+
+    @Column(nullable = false)
+    private long nextOffset;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -1,5 +1,6 @@
 package br.com.microservices.orchestrated.inventoryservice.core.model;
 
+import br.com.microservices.orchestrated.inventoryservice.core.enums.EOrderInventoryStatus;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -16,13 +17,19 @@ import java.time.LocalDateTime;
 @Table(name = "order_inventory")
 public class OrderInventory {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_inventory_seq")
+    @SequenceGenerator(name = "order_inventory_seq", sequenceName = "order_inventory_seq", allocationSize = 50)
     private Integer id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "inventory_id", nullable = false)
     private Inventory inventory;
 
+    @Column(nullable = false)
+    private String productCode;
+
+    private String warehouseCode;
+
     @Column(nullable = false)
     private String orderId;
 
@@ -38,6 +45,12 @@ public class OrderInventory {
     @Column(nullable = false)
     private Integer newQuantity;
 
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private EOrderInventoryStatus status;
+
+    private LocalDateTime expiresAt;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
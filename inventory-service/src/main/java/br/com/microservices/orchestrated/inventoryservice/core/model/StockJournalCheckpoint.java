@@ -0,0 +1,24 @@
+package br.com.microservices.orchestrated.inventoryservice.core.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "stock_journal_checkpoint")
+public class StockJournalCheckpoint {
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private long seq;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,26 @@
+package br.com.microservices.orchestrated.inventoryservice.core.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "warehouse_stock", uniqueConstraints = @UniqueConstraint(columnNames = {"warehouseCode", "productCode"}))
+public class WarehouseStock {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false)
+    private String warehouseCode;
+
+    @Column(nullable = false)
+    private String productCode;
+
+    @Column(nullable = false)
+    private Integer available;
+}
@@ -6,6 +6,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -15,6 +17,14 @@ public class KafkaProducer {
     @Value("${spring.kafka.topic.orchestrator}")
     private String orchestratorTopic;
 
+    @Value("${spring.kafka.topic.stock-changes}")
+    private String stockChangesTopic;
+
+    public CompletableFuture<?> sendStockChange(String productCode, String payload) {
+        log.debug("Sending stock change for {} to topic {}", productCode, stockChangesTopic);
+        return kafkaTemplate.send(stockChangesTopic, productCode, payload);
+    }
+
     public void sendEvent(String payload) {
         try {
             log.info("SagaProducer: sending event to topic {} with data {}", orchestratorTopic, payload);
@@ -1,12 +1,58 @@
 package br.com.microservices.orchestrated.inventoryservice.core.respository;
 
+import br.com.microservices.orchestrated.inventoryservice.core.dto.HoldExpiry;
+import br.com.microservices.orchestrated.inventoryservice.core.enums.EOrderInventoryStatus;
 import br.com.microservices.orchestrated.inventoryservice.core.model.OrderInventory;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface OrderInventoryRepository extends JpaRepository<OrderInventory, Integer> {
     Boolean existsByOrderIdAndTransactionId(String orderId, String transactionId);
     List<OrderInventory> findByOrderIdAndTransactionId(String orderId, String transactionId);
+    Boolean existsByOrderIdAndTransactionIdAndStatus(String orderId, String transactionId, EOrderInventoryStatus status);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<OrderInventory> findByOrderIdAndTransactionIdAndStatusOrderById(String orderId,
+                                                                         String transactionId,
+                                                                         EOrderInventoryStatus status);
+
+    @Query(value = """
+            SELECT * FROM order_inventory
+            WHERE transaction_id IN (:transactionIds) AND status = 'HELD' AND expires_at <= :now
+            ORDER BY id
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<OrderInventory> lockExpiredHolds(@Param("transactionIds") Collection<String> transactionIds,
+                                          @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            update OrderInventory o set o.status = :next, o.updatedAt = :now
+            where o.orderId = :orderId and o.transactionId = :transactionId and o.status = :current
+            """)
+    int updateStatus(@Param("orderId") String orderId,
+                     @Param("transactionId") String transactionId,
+                     @Param("current") EOrderInventoryStatus current,
+                     @Param("next") EOrderInventoryStatus next,
+                     @Param("now") LocalDateTime now);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            select distinct new br.com.microservices.orchestrated.inventoryservice.core.dto.HoldExpiry(o.transactionId, o.expiresAt)
+            from OrderInventory o where o.status = :status
+            """)
+    Stream<HoldExpiry> streamHolds(@Param("status") EOrderInventoryStatus status);
 }
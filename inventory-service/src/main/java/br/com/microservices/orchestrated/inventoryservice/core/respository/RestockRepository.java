@@ -0,0 +1,153 @@
+package br.com.microservices.orchestrated.inventoryservice.core.respository;
+
+import br.com.microservices.orchestrated.inventoryservice.core.dto.StockDelta;
+import br.com.microservices.orchestrated.inventoryservice.core.enums.ERestockMode;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class RestockRepository {
+    private static final int COPY_CHUNK_BYTES = 1 << 16;
+
+    private static final String CREATE_STAGING = """
+            CREATE TEMP TABLE restock_staging (
+                line bigserial,
+                product_code varchar(255) NOT NULL,
+                quantity integer NOT NULL
+            ) ON COMMIT DROP
+            """;
+    private static final String COPY_CSV = "COPY restock_staging (product_code, quantity) FROM STDIN WITH (FORMAT csv, HEADER %s)";
+    private static final String COUNT_NEGATIVE = "SELECT count(*) FROM restock_staging WHERE quantity < 0";
+    private static final String AGGREGATE_ADD = """
+            CREATE TEMP TABLE restock_merge ON COMMIT DROP AS
+            SELECT product_code, SUM(quantity)::integer AS quantity
+            FROM restock_staging GROUP BY product_code
+            """;
+    private static final String AGGREGATE_SET = """
+            CREATE TEMP TABLE restock_merge ON COMMIT DROP AS
+            SELECT DISTINCT ON (product_code) product_code, quantity
+            FROM restock_staging ORDER BY product_code, line DESC
+            """;
+    private static final String EXTRACT_HOT = """
+            DELETE FROM restock_merge WHERE product_code = ANY (?)
+            RETURNING product_code, quantity
+            """;
+    private static final String MERGE_ADD = """
+            INSERT INTO inventory (product_code, available)
+            SELECT product_code, quantity FROM restock_merge
+            ON CONFLICT (product_code) DO UPDATE SET available = inventory.available + EXCLUDED.available
+            """;
+    private static final String MERGE_SET = """
+            INSERT INTO inventory (product_code, available)
+            SELECT product_code, quantity FROM restock_merge
+            ON CONFLICT (product_code) DO UPDATE SET available = EXCLUDED.available
+            """;
+    private static final String MERGE_WAREHOUSE = """
+            INSERT INTO warehouse_stock (warehouse_code, product_code, available)
+            SELECT ?, product_code, quantity FROM restock_merge
+            ON CONFLICT (warehouse_code, product_code) DO UPDATE SET available = warehouse_stock.available + EXCLUDED.available
+            """;
+    private static final String MERGE_SHARDS_ADD = """
+            UPDATE inventory_shard s
+            SET available = s.available + r.quantity / ? + CASE WHEN s.shard < r.quantity % ? THEN 1 ELSE 0 END
+            FROM restock_merge r WHERE s.product_code = r.product_code
+            """;
+    private static final String MERGE_SHARDS_SET = """
+            UPDATE inventory_shard s
+            SET available = r.quantity / ? + CASE WHEN s.shard < r.quantity % ? THEN 1 ELSE 0 END
+            FROM restock_merge r WHERE s.product_code = r.product_code
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void createStaging() {
+        jdbcTemplate.execute(CREATE_STAGING);
+    }
+
+    public long copyCsv(InputStream input, boolean header) {
+        var sql = String.format(COPY_CSV, header);
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, input);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public long copyRows(Iterator<StockDelta> rows) {
+        var sql = String.format(COPY_CSV, false);
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            var copy = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+            try {
+                var buffer = new ByteArrayOutputStream(COPY_CHUNK_BYTES + 512);
+                while (rows.hasNext()) {
+                    var row = rows.next();
+                    buffer.writeBytes(toCsv(row).getBytes(StandardCharsets.UTF_8));
+                    if (buffer.size() >= COPY_CHUNK_BYTES) {
+                        copy.writeToCopy(buffer.toByteArray(), 0, buffer.size());
+                        buffer.reset();
+                    }
+                }
+                if (buffer.size() > 0) {
+                    copy.writeToCopy(buffer.toByteArray(), 0, buffer.size());
+                }
+                return copy.endCopy();
+            } finally {
+                if (copy.isActive()) {
+                    copy.cancelCopy();
+                }
+            }
+        });
+    }
+
+    public long countNegative() {
+        var count = jdbcTemplate.queryForObject(COUNT_NEGATIVE, Long.class);
+        return count == null ? 0 : count;
+    }
+
+    public int aggregate(ERestockMode mode) {
+        return jdbcTemplate.update(mode == ERestockMode.SET ? AGGREGATE_SET : AGGREGATE_ADD);
+    }
+
+    public List<StockDelta> extractHot(List<String> hotProductCodes) {
+        return jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(EXTRACT_HOT);
+            statement.setArray(1, connection.createArrayOf("varchar", hotProductCodes.toArray()));
+            return statement;
+        }, (resultSet, row) -> new StockDelta(resultSet.getString("product_code"), resultSet.getInt("quantity")));
+    }
+
+    public int mergeInventory(ERestockMode mode) {
+        return jdbcTemplate.update(mode == ERestockMode.SET ? MERGE_SET : MERGE_ADD);
+    }
+
+    public int mergeWarehouse(String warehouseCode) {
+        return jdbcTemplate.update(MERGE_WAREHOUSE, warehouseCode);
+    }
+
+    public int mergeShards(ERestockMode mode, int shards) {
+        return jdbcTemplate.update(mode == ERestockMode.SET ? MERGE_SHARDS_SET : MERGE_SHARDS_ADD, shards, shards);
+    }
+
+    private String toCsv(StockDelta row) {
+        var productCode = row.productCode();
+        if (productCode.indexOf(',') >= 0 || productCode.indexOf('"') >= 0
+                || productCode.indexOf('\n') >= 0 || productCode.indexOf('\r') >= 0) {
+            productCode = "\"" + productCode.replace("\"", "\"\"") + "\"";
+        }
+        return productCode + "," + row.quantity() + "\n";
+    }
+}
@@ -0,0 +1,101 @@
+package br.com.microservices.orchestrated.inventoryservice.core.respository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class ShardedStockRepository {
+    private static final String SEED = """
+            INSERT INTO inventory_shard (product_code, shard, available)
+            SELECT i.product_code, s.shard,
+                   i.available / ? + CASE WHEN s.shard < i.available % ? THEN 1 ELSE 0 END
+            FROM inventory i CROSS JOIN generate_series(0, ? - 1) AS s(shard)
+            WHERE NOT EXISTS (SELECT 1 FROM inventory_shard e WHERE e.product_code = i.product_code)
+            """;
+    private static final String DECREMENT_SHARD = """
+            UPDATE inventory_shard SET available = available - ?
+            WHERE product_code = ? AND shard = ? AND available >= ?
+            """;
+    private static final String INCREMENT_SHARD = """
+            UPDATE inventory_shard SET available = available + ?
+            WHERE product_code = ? AND shard = ?
+            """;
+    private static final String LOCK_SHARDS = """
+            SELECT shard, available FROM inventory_shard
+            WHERE product_code = ? ORDER BY shard FOR UPDATE
+            """;
+    private static final String UPDATE_SHARD = "UPDATE inventory_shard SET available = ? WHERE product_code = ? AND shard = ?";
+    private static final String DELETE_SHARDS = "DELETE FROM inventory_shard WHERE product_code = ?";
+    private static final String INSERT_SHARD = "INSERT INTO inventory_shard (product_code, shard, available) VALUES (?, ?, ?)";
+    private static final String SELECT_AVAILABLE = """
+            SELECT product_code, SUM(available) AS available FROM inventory_shard
+            WHERE product_code = ANY (?) GROUP BY product_code
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public int seed(int shards) {
+        return jdbcTemplate.update(SEED, shards, shards, shards);
+    }
+
+    public void delete(String productCode) {
+        jdbcTemplate.update(DELETE_SHARDS, productCode);
+    }
+
+    public void reset(String productCode, int shards, int available) {
+        delete(productCode);
+        var rows = new ArrayList<Object[]>(shards);
+        for (var shard = 0; shard < shards; shard++) {
+            rows.add(new Object[]{productCode, shard, share(available, shards, shard)});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SHARD, rows);
+    }
+
+    public boolean decrementShard(String productCode, int shard, int quantity) {
+        return jdbcTemplate.update(DECREMENT_SHARD, quantity, productCode, shard, quantity) > 0;
+    }
+
+    public void incrementShard(String productCode, int shard, int quantity) {
+        jdbcTemplate.update(INCREMENT_SHARD, quantity, productCode, shard);
+    }
+
+    public boolean decrementAcrossShards(String productCode, int quantity) {
+        var available = jdbcTemplate.query(LOCK_SHARDS,
+                (resultSet, row) -> resultSet.getInt("available"), productCode);
+        var total = available.stream().mapToInt(Integer::intValue).sum();
+        if (available.isEmpty() || total < quantity) {
+            return false;
+        }
+        var remaining = total - quantity;
+        var shards = available.size();
+        var rows = new ArrayList<Object[]>(shards);
+        for (var shard = 0; shard < shards; shard++) {
+            rows.add(new Object[]{share(remaining, shards, shard), productCode, shard});
+        }
+        jdbcTemplate.batchUpdate(UPDATE_SHARD, rows);
+        return true;
+    }
+
+    public Map<String, Integer> findAvailable(List<String> productCodes) {
+        var available = new HashMap<String, Integer>();
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(SELECT_AVAILABLE);
+            statement.setArray(1, connection.createArrayOf("varchar", productCodes.toArray()));
+            return statement;
+        }, resultSet -> {
+            available.put(resultSet.getString("product_code"), resultSet.getInt("available"));
+        });
+        return available;
+    }
+
+    private int share(int total, int shards, int shard) {
+        return total / shards + (shard < total % shards ? 1 : 0);
+    }
+}
@@ -0,0 +1,7 @@
+package br.com.microservices.orchestrated.inventoryservice.core.respository;
+
+import br.com.microservices.orchestrated.inventoryservice.core.model.StockJournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface StockJournalCheckpointRepository extends JpaRepository<StockJournalCheckpoint, Integer> {
+}
@@ -0,0 +1,16 @@
+package br.com.microservices.orchestrated.inventoryservice.core.respository;
+
+import br.com.microservices.orchestrated.inventoryservice.core.model.StockJournalCommit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface StockJournalCommitRepository extends JpaRepository<StockJournalCommit, Long> {
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO stock_journal_commit (batch_seq) VALUES (:batchSeq)", nativeQuery = true)
+    void insert(@Param("batchSeq") long batchSeq);
+}
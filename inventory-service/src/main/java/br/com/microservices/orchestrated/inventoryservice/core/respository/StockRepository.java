@@ -0,0 +1,62 @@
+package br.com.microservices.orchestrated.inventoryservice.core.respository;
+
+import br.com.microservices.orchestrated.inventoryservice.core.dto.StockDelta;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class StockRepository {
+    private static final String DECREMENT = """
+            UPDATE inventory SET available = available - ?
+            WHERE product_code = ? AND available >= ?
+            """;
+    private static final String INCREMENT = """
+            UPDATE inventory SET available = available + ?
+            WHERE product_code = ?
+            """;
+
+    private static final String SELECT_AVAILABLE = "SELECT product_code, available FROM inventory WHERE product_code = ANY (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public boolean decrement(List<StockDelta> deltas) {
+        var counts = jdbcTemplate.batchUpdate(DECREMENT, deltas, deltas.size(), (statement, delta) -> {
+            statement.setInt(1, delta.quantity());
+            statement.setString(2, delta.productCode());
+            statement.setInt(3, delta.quantity());
+        });
+        for (var batch : counts) {
+            for (var count : batch) {
+                if (count == 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public void increment(List<StockDelta> deltas) {
+        jdbcTemplate.batchUpdate(INCREMENT, deltas, deltas.size(), (statement, delta) -> {
+            statement.setInt(1, delta.quantity());
+            statement.setString(2, delta.productCode());
+        });
+    }
+
+    public Map<String, Integer> findAvailable(List<String> productCodes) {
+        var available = new HashMap<String, Integer>();
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(SELECT_AVAILABLE);
+            statement.setArray(1, connection.createArrayOf("varchar", productCodes.toArray()));
+            return statement;
+        }, resultSet -> {
+            available.put(resultSet.getString("product_code"), resultSet.getInt("available"));
+        });
+        return available;
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.microservices.orchestrated.inventoryservice.core.respository;
+
+import br.com.microservices.orchestrated.inventoryservice.core.dto.WarehouseAllocation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Repository
+@RequiredArgsConstructor
+public class WarehouseStockRepository {
+    private static final String SELECT_ALL = "SELECT warehouse_code, product_code, available FROM warehouse_stock";
+    private static final String SELECT_BY_PRODUCTS = SELECT_ALL + " WHERE product_code = ANY (?)";
+    private static final String DECREMENT = """
+            UPDATE warehouse_stock SET available = available - ?
+            WHERE warehouse_code = ? AND product_code = ? AND available >= ?
+            """;
+    private static final String INCREMENT = """
+            UPDATE warehouse_stock SET available = available + ?
+            WHERE warehouse_code = ? AND product_code = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void forEach(List<String> productCodes, Consumer<WarehouseAllocation> consumer) {
+        if (productCodes == null) {
+            jdbcTemplate.query(SELECT_ALL, resultSet -> {
+                consumer.accept(toStock(resultSet));
+            });
+            return;
+        }
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(SELECT_BY_PRODUCTS);
+            statement.setArray(1, connection.createArrayOf("varchar", productCodes.toArray()));
+            return statement;
+        }, resultSet -> {
+            consumer.accept(toStock(resultSet));
+        });
+    }
+
+    public boolean decrement(List<WarehouseAllocation> allocations) {
+        var counts = jdbcTemplate.batchUpdate(DECREMENT, allocations, allocations.size(), (statement, allocation) -> {
+            statement.setInt(1, allocation.quantity());
+            statement.setString(2, allocation.warehouseCode());
+            statement.setString(3, allocation.productCode());
+            statement.setInt(4, allocation.quantity());
+        });
+        for (var batch : counts) {
+            for (var count : batch) {
+                if (count == 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public void increment(List<WarehouseAllocation> allocations) {
+        jdbcTemplate.batchUpdate(INCREMENT, allocations, allocations.size(), (statement, allocation) -> {
+            statement.setInt(1, allocation.quantity());
+            statement.setString(2, allocation.warehouseCode());
+            statement.setString(3, allocation.productCode());
+        });
+    }
+
+    private WarehouseAllocation toStock(ResultSet resultSet) throws SQLException {
+        return new WarehouseAllocation(
+                resultSet.getString("warehouse_code"),
+                resultSet.getString("product_code"),
+                resultSet.getInt("available"));
+    }
+}
@@ -0,0 +1,221 @@
+package br.com.microservices.orchestrated.inventoryservice.core.service;
+
+import br.com.microservices.orchestrated.inventoryservice.core.dto.Event;
+import br.com.microservices.orchestrated.inventoryservice.core.dto.Reservation;
+import br.com.microservices.orchestrated.inventoryservice.core.dto.StockDelta;
+import br.com.microservices.orchestrated.inventoryservice.core.dto.WarehouseAllocation;
+import br.com.microservices.orchestrated.inventoryservice.core.enums.EOrderInventoryStatus;
+import br.com.microservices.orchestrated.inventoryservice.core.model.OrderInventory;
+import br.com.microservices.orchestrated.inventoryservice.core.respository.OrderInventoryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static br.com.microservices.orchestrated.inventoryservice.core.enums.ESagaStatus.SUCCESS;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@DependsOn("entityManagerFactory")
+public class HoldService {
+    private final OrderInventoryRepository orderInventoryRepository;
+    private final StockService stockService;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentSkipListMap<Long, ConcurrentLinkedQueue<String>> expiries = new ConcurrentSkipListMap<>();
+
+    @Value("${app.inventory.hold.ttl-seconds}")
+    private long ttlSeconds;
+
+    @Value("${app.inventory.hold.sweep-interval-ms}")
+    private long sweepIntervalMs;
+
+    @Value("${app.inventory.hold.sweep-batch-size}")
+    private int sweepBatchSize;
+
+    private ScheduledExecutorService sweeper;
+
+    @PostConstruct
+    public void start() {
+        var recovered = transactionTemplate.execute(status -> {
+            var count = new long[1];
+            try (var holds = orderInventoryRepository.streamHolds(EOrderInventoryStatus.HELD)) {
+                holds.forEach(hold -> {
+                    track(hold.transactionId(), hold.expiresAt());
+                    count[0]++;
+                });
+            }
+            return count[0];
+        });
+        log.info("Tracking {} outstanding inventory holds", recovered);
+
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "inventory-hold-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepIntervalMs, sweepIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        sweeper.shutdownNow();
+    }
+
+    public LocalDateTime nextExpiry() {
+        return LocalDateTime.now().plusSeconds(ttlSeconds);
+    }
+
+    public void track(String transactionId, LocalDateTime expiresAt) {
+        expiries
+                .computeIfAbsent(ceilSecond(expiresAt), second -> new ConcurrentLinkedQueue<>())
+                .add(transactionId);
+    }
+
+    public void confirm(Event event) {
+        if (event.getStatus() != SUCCESS) {
+            return;
+        }
+        var confirmed = transactionTemplate.execute(status -> orderInventoryRepository.updateStatus(
+                event.getPayload().getId(), event.getTransactionId(),
+                EOrderInventoryStatus.HELD, EOrderInventoryStatus.CONFIRMED, LocalDateTime.now()));
+        if (confirmed == null || confirmed == 0) {
+            confirmExpired(event);
+            return;
+        }
+        log.info("Confirmed {} inventory holds for transaction {}", confirmed, event.getTransactionId());
+    }
+
+    private void confirmExpired(Event event) {
+        var reserved = transactionTemplate.execute(status -> {
+            var expired = orderInventoryRepository.findByOrderIdAndTransactionIdAndStatusOrderById(
+                    event.getPayload().getId(), event.getTransactionId(), EOrderInventoryStatus.EXPIRED);
+            if (expired.isEmpty() || orderInventoryRepository.existsByOrderIdAndTransactionIdAndStatus(
+                    event.getPayload().getId(), event.getTransactionId(), EOrderInventoryStatus.CONFIRMED)) {
+                return null;
+            }
+            var quantities = new TreeMap<String, Integer>();
+            expired.forEach(hold -> quantities.merge(hold.getProductCode(), hold.getOrderQuantity(), Integer::sum));
+            var deltas = new ArrayList<StockDelta>(quantities.size());
+            quantities.forEach((productCode, quantity) -> deltas.add(new StockDelta(productCode, quantity)));
+            var reservation = stockService.reserve(deltas);
+            if (reservation == null) {
+                return false;
+            }
+            orderInventoryRepository.saveAll(toConfirmedHolds(expired, quantities, reservation));
+            return true;
+        });
+        if (reserved == null) {
+            log.warn("No inventory hold left to confirm for transaction {}", event.getTransactionId());
+        } else if (reserved) {
+            log.warn("Re-reserved expired inventory hold for completed transaction {}", event.getTransactionId());
+        } else {
+            log.error("Order {} completed after its inventory hold expired and the stock could not be re-reserved, "
+                    + "transaction {} is oversold", event.getPayload().getId(), event.getTransactionId());
+        }
+    }
+
+    private List<OrderInventory> toConfirmedHolds(List<OrderInventory> expired, Map<String, Integer> quantities,
+                                                  Reservation reservation) {
+        var templates = new HashMap<String, OrderInventory>();
+        expired.forEach(hold -> templates.putIfAbsent(hold.getProductCode(), hold));
+        var parts = new ArrayList<>(reservation.allocations());
+        if (parts.isEmpty()) {
+            quantities.forEach((productCode, quantity) -> parts.add(new WarehouseAllocation(null, productCode, quantity)));
+        }
+        var previous = new HashMap<String, Integer>();
+        quantities.forEach((productCode, quantity) -> {
+            var remaining = reservation.remaining().get(productCode);
+            previous.put(productCode, quantity + (remaining != null
+                    ? remaining
+                    : templates.get(productCode).getInventory().getAvailable()));
+        });
+        var holds = new ArrayList<OrderInventory>(parts.size());
+        parts.forEach(part -> {
+            var template = templates.get(part.productCode());
+            var oldQuantity = previous.get(part.productCode());
+            holds.add(OrderInventory
+                    .builder()
+                    .inventory(template.getInventory())
+                    .productCode(part.productCode())
+                    .warehouseCode(part.warehouseCode())
+                    .oldQuantity(oldQuantity)
+                    .orderQuantity(part.quantity())
+                    .newQuantity(oldQuantity - part.quantity())
+                    .status(EOrderInventoryStatus.CONFIRMED)
+                    .orderId(template.getOrderId())
+                    .transactionId(template.getTransactionId())
+                    .build());
+            previous.put(part.productCode(), oldQuantity - part.quantity());
+        });
+        return holds;
+    }
+
+    private void sweep() {
+        try {
+            List<String> expired;
+            while (!(expired = pollExpired()).isEmpty()) {
+                release(expired);
+            }
+        } catch (Exception e) {
+            log.error("Error trying to sweep expired inventory holds: ", e);
+        }
+    }
+
+    private List<String> pollExpired() {
+        var now = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+        var batch = new LinkedHashSet<String>();
+        Map.Entry<Long, ConcurrentLinkedQueue<String>> bucket;
+        while (batch.size() < sweepBatchSize && (bucket = expiries.firstEntry()) != null && bucket.getKey() <= now) {
+            String transactionId;
+            while (batch.size() < sweepBatchSize && (transactionId = bucket.getValue().poll()) != null) {
+                batch.add(transactionId);
+            }
+            if (bucket.getValue().isEmpty()) {
+                expiries.remove(bucket.getKey(), bucket.getValue());
+            }
+        }
+        return new ArrayList<>(batch);
+    }
+
+    private void release(List<String> transactionIds) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                var holds = orderInventoryRepository.lockExpiredHolds(transactionIds, LocalDateTime.now());
+                if (holds.isEmpty()) {
+                    return;
+                }
+                holds.forEach(hold -> hold.setStatus(EOrderInventoryStatus.EXPIRED));
+                stockService.release(holds);
+                orderInventoryRepository.saveAll(holds);
+                log.info("Released {} expired inventory holds", holds.size());
+            });
+        } catch (Exception e) {
+            log.error("Error trying to release expired inventory holds, will retry: ", e);
+            var retryAt = LocalDateTime.now().plusSeconds(1);
+            transactionIds.forEach(transactionId -> track(transactionId, retryAt));
+        }
+    }
+
+    private long ceilSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) + (dateTime.getNano() > 0 ? 1 : 0);
+    }
+}
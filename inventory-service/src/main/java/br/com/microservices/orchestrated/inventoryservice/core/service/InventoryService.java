@@ -1,9 +1,12 @@
 package br.com.microservices.orchestrated.inventoryservice.core.service;
 
+import br.com.microservices.orchestrated.inventoryservice.core.dto.ConsumedPosition;
 import br.com.microservices.orchestrated.inventoryservice.core.dto.Event;
 import br.com.microservices.orchestrated.inventoryservice.core.dto.History;
-import br.com.microservices.orchestrated.inventoryservice.core.dto.Order;
 import br.com.microservices.orchestrated.inventoryservice.core.dto.OrderProducts;
+import br.com.microservices.orchestrated.inventoryservice.core.dto.StockDelta;
+import br.com.microservices.orchestrated.inventoryservice.core.dto.WarehouseAllocation;
+import br.com.microservices.orchestrated.inventoryservice.core.enums.EOrderInventoryStatus;
 import br.com.microservices.orchestrated.inventoryservice.core.model.Inventory;
 import br.com.microservices.orchestrated.inventoryservice.core.model.OrderInventory;
 import br.com.microservices.orchestrated.inventoryservice.core.producer.KafkaProducer;
@@ -14,8 +17,18 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.common.security.oauthbearer.internals.secured.ValidateException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 import static br.com.microservices.orchestrated.inventoryservice.core.enums.ESagaStatus.*;
 
@@ -29,62 +42,136 @@ public class InventoryService {
     private final KafkaProducer kafkaProducer;
     private final InventoryRepository inventoryRepository;
     private final OrderInventoryRepository orderInventoryRepository;
+    private final StockService stockService;
+    private final HoldService holdService;
+    private final ConsumerOffsetService consumerOffsetService;
+    private final TransactionTemplate transactionTemplate;
 
-    public void updateInventory(Event event) {
+    public void updateInventory(Event event, ConsumedPosition position) {
         try {
-            checkCurrentValidation(event);
-            createOrderInventory(event);
-            updateInventory(event.getPayload());
+            consumerOffsetService.executeAndSave(position, () -> transactionTemplate.executeWithoutResult(status -> {
+                checkCurrentValidation(event);
+                reserveInventory(event);
+            }));
             handleSuccess(event);
         } catch (Exception e) {
             log.error("Error trying to update inventory: ", e.getMessage());
+            consumerOffsetService.save(position);
             handleFail(event, e.getMessage());
         }
 
         kafkaProducer.sendEvent(jsonUtil.toJson(event));
     }
 
-    private void updateInventory(Order order){
-        order
-                .getProducts()
-                .forEach(product -> {
-                    var inventory = findInventoryByProductCode(product.getProduct().getCode());
-                    checkInventory(inventory.getAvailable(), product.getQuantity());
-                    inventory.setAvailable(inventory.getAvailable() - product.getQuantity());
-                    inventoryRepository.save(inventory);
-                });
+    private void reserveInventory(Event event) {
+        var deltas = toStockDeltas(event.getPayload().getProducts());
+        var reservation = stockService.reserve(deltas);
+        if (reservation == null) {
+            findInventoriesByProductCode(deltas);
+            throw new ValidateException("Product is out of stock!");
+        }
+
+        var inventories = findInventoriesByProductCode(deltas);
+        var remaining = reservation.remaining();
+        var previous = new HashMap<String, Integer>();
+        deltas.forEach(delta -> {
+            var available = remaining.containsKey(delta.productCode())
+                    ? remaining.get(delta.productCode())
+                    : inventories.get(delta.productCode()).getAvailable();
+            previous.put(delta.productCode(), available + delta.quantity());
+        });
+
+        var allocations = new HashMap<String, ArrayDeque<WarehouseAllocation>>();
+        reservation.allocations().forEach(allocation -> allocations
+                .computeIfAbsent(allocation.productCode(), productCode -> new ArrayDeque<>())
+                .add(allocation));
+
+        var products = event.getPayload().getProducts();
+        var expiresAt = holdService.nextExpiry();
+        var orderInventories = new ArrayList<OrderInventory>(products.size());
+        products.forEach(product -> {
+            var productCode = product.getProduct().getCode();
+            var oldQuantity = previous.get(productCode);
+            for (var part : takeAllocations(allocations.get(productCode), productCode, product.getQuantity())) {
+                orderInventories.add(createOrderInventory(event, part, inventories.get(productCode), oldQuantity, expiresAt));
+                oldQuantity -= part.quantity();
+            }
+            previous.put(productCode, oldQuantity);
+        });
+        orderInventoryRepository.saveAll(orderInventories);
+        afterCommit(() -> holdService.track(event.getTransactionId(), expiresAt));
     }
 
-    private void checkInventory(int available, int orderQuantity) {
-        if(available < orderQuantity) {
-            throw new ValidateException("Product is out of stock!");
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private List<WarehouseAllocation> takeAllocations(ArrayDeque<WarehouseAllocation> allocations,
+                                                      String productCode, int quantity) {
+        if (allocations == null) {
+            return List.of(new WarehouseAllocation(null, productCode, quantity));
+        }
+        var parts = new ArrayList<WarehouseAllocation>();
+        while (quantity > 0) {
+            var allocation = allocations.poll();
+            var taken = Math.min(quantity, allocation.quantity());
+            parts.add(new WarehouseAllocation(allocation.warehouseCode(), productCode, taken));
+            if (taken < allocation.quantity()) {
+                allocations.push(new WarehouseAllocation(allocation.warehouseCode(), productCode, allocation.quantity() - taken));
+            }
+            quantity -= taken;
+        }
+        return parts;
+    }
+
+    private List<StockDelta> toStockDeltas(List<OrderProducts> products) {
+        var quantities = new TreeMap<String, Integer>();
+        products.forEach(product -> {
+            checkQuantity(product.getQuantity());
+            quantities.merge(product.getProduct().getCode(), product.getQuantity(), Integer::sum);
+        });
+        var deltas = new ArrayList<StockDelta>(quantities.size());
+        quantities.forEach((productCode, quantity) -> deltas.add(new StockDelta(productCode, quantity)));
+        return deltas;
+    }
+
+    private void checkQuantity(int orderQuantity) {
+        if(orderQuantity <= 0) {
+            throw new ValidateException("Product quantity must be greater than zero.");
         }
     }
 
     private void checkCurrentValidation(Event event) {
+        if(consumerOffsetService.isEnabled()) {
+            return;
+        }
         if(orderInventoryRepository.existsByOrderIdAndTransactionId(event.getPayload().getId(),
                 event.getTransactionId())) {
             throw new ValidateException("There's another transactionId for this validation.");
         }
     }
 
-    private void createOrderInventory(Event event) {
-        event.getPayload()
-                .getProducts()
-                .forEach(product -> {
-                    var inventory = findInventoryByProductCode(product.getProduct().getCode());
-                    var orderInventory = createOrderInventory(event, product, inventory);
-                    orderInventoryRepository.save(orderInventory);
-                });
-    }
-
-    private OrderInventory createOrderInventory(Event event, OrderProducts orderProducts, Inventory inventory) {
+    private OrderInventory createOrderInventory(Event event, WarehouseAllocation allocation, Inventory inventory,
+                                                int oldQuantity, LocalDateTime expiresAt) {
         return OrderInventory
                 .builder()
                 .inventory(inventory)
-                .oldQuantity(inventory.getAvailable())
-                .orderQuantity(orderProducts.getQuantity())
-                .newQuantity(inventory.getAvailable() - orderProducts.getQuantity())
+                .productCode(inventory.getProductCode())
+                .warehouseCode(allocation.warehouseCode())
+                .oldQuantity(oldQuantity)
+                .orderQuantity(allocation.quantity())
+                .newQuantity(oldQuantity - allocation.quantity())
+                .status(EOrderInventoryStatus.HELD)
+                .expiresAt(expiresAt)
                 .orderId(event.getPayload().getId())
                 .transactionId(event.getTransactionId())
                 .build();
@@ -118,36 +205,48 @@ public class InventoryService {
 
     }
 
-    public void rollBackInventory(Event event) {
+    public void rollBackInventory(Event event, ConsumedPosition position) {
         event.setStatus(FAIL);
         event.setSource(CURRENT_SOURCE);
         try {
-            returnInventoryToPreviusValues(event);
+            consumerOffsetService.executeAndSave(position, () ->
+                    transactionTemplate.executeWithoutResult(status -> returnInventoryToPreviusValues(event)));
             addHistory(event, "Rollback executed on inventory!");
         }catch (Exception e) {
+            consumerOffsetService.save(position);
             addHistory(event, "Rollback not executed on inventory: ".concat(e.getMessage()));
         }
         kafkaProducer.sendEvent(jsonUtil.toJson(event));
     }
 
     private void returnInventoryToPreviusValues(Event event) {
-        orderInventoryRepository
-                .findByOrderIdAndTransactionId(event.getPayload().getId(), event.getTransactionId())
-                .forEach(orderInventory -> {
-                    var inventory = orderInventory.getInventory();
-                    inventory.setAvailable(orderInventory.getOldQuantity());
-                    inventoryRepository.save(inventory);
-                    log.info("Restored inventory for order {} from {} to {}.",
-                            event.getPayload().getId(),
-                            orderInventory.getNewQuantity(),
-                            inventory.getAvailable());
-                });
+        var reserved = orderInventoryRepository.findByOrderIdAndTransactionIdAndStatusOrderById(
+                event.getPayload().getId(), event.getTransactionId(), EOrderInventoryStatus.HELD);
+        if (reserved.isEmpty()) {
+            return;
+        }
+
+        reserved.forEach(orderInventory -> {
+            orderInventory.setStatus(EOrderInventoryStatus.RELEASED);
+            log.info("Released {} units of {} from warehouse {} for order {}.", orderInventory.getOrderQuantity(),
+                    orderInventory.getProductCode(), orderInventory.getWarehouseCode(), event.getPayload().getId());
+        });
+        stockService.release(reserved);
+        orderInventoryRepository.saveAll(reserved);
     }
 
-    private Inventory findInventoryByProductCode(String productCode) {
-        return inventoryRepository
-                .findByProductCode(productCode)
-                .orElseThrow(() -> new ValidateException("Inventory not found by informed product code: ".concat(productCode)));
+    private Map<String, Inventory> findInventoriesByProductCode(List<StockDelta> deltas) {
+        var productCodes = deltas.stream().map(StockDelta::productCode).toList();
+        var inventories = new LinkedHashMap<String, Inventory>();
+        inventoryRepository
+                .findByProductCodeInOrderByProductCode(productCodes)
+                .forEach(inventory -> inventories.put(inventory.getProductCode(), inventory));
+        productCodes.forEach(productCode -> {
+            if (!inventories.containsKey(productCode)) {
+                throw new ValidateException("Inventory not found by informed product code: ".concat(productCode));
+            }
+        });
+        return inventories;
     }
 
 
@@ -0,0 +1,172 @@
+package br.com.microservices.orchestrated.inventoryservice.core.service;
+
+import br.com.microservices.orchestrated.inventoryservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.inventoryservice.core.dto.RestockResult;
+import br.com.microservices.orchestrated.inventoryservice.core.dto.StockDelta;
+import br.com.microservices.orchestrated.inventoryservice.core.enums.ERestockMode;
+import br.com.microservices.orchestrated.inventoryservice.core.enums.EStockChangeReason;
+import br.com.microservices.orchestrated.inventoryservice.core.respository.RestockRepository;
+import br.com.microservices.orchestrated.inventoryservice.core.stock.HotStockEngine;
+import br.com.microservices.orchestrated.inventoryservice.core.stock.ShardedStockCounter;
+import br.com.microservices.orchestrated.inventoryservice.core.stock.StockSnapshot;
+import br.com.microservices.orchestrated.inventoryservice.core.stock.WarehouseAllocator;
+import br.com.microservices.orchestrated.inventoryservice.core.utils.JsonUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.springframework.util.ObjectUtils.isEmpty;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RestockService {
+    private final RestockRepository restockRepository;
+    private final HotStockEngine hotStockEngine;
+    private final ShardedStockCounter shardedStockCounter;
+    private final StockSnapshot stockSnapshot;
+    private final WarehouseAllocator warehouseAllocator;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonUtil jsonUtil;
+
+    public RestockResult importCsv(InputStream input, ERestockMode mode, boolean header, String warehouseCode) {
+        return restock(mode, warehouseCode, () -> restockRepository.copyCsv(input, header));
+    }
+
+    public RestockResult importNdjson(InputStream input, ERestockMode mode, String warehouseCode) {
+        var reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        return restock(mode, warehouseCode, () -> restockRepository.copyRows(new NdjsonRows(reader)));
+    }
+
+    private RestockResult restock(ERestockMode mode, String warehouseCode, CopyStep copy) {
+        validateWarehouse(mode, warehouseCode);
+        var start = System.currentTimeMillis();
+        var hotProductCodes = hotStockEngine.productCodes();
+        var result = RestockResult.builder().mode(mode).build();
+        var hot = new ArrayList<StockDelta>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                restockRepository.createStaging();
+                result.setRows(copy.run());
+                if (restockRepository.countNegative() > 0) {
+                    throw new ValidationException("Restock quantities must not be negative.");
+                }
+                result.setProducts(restockRepository.aggregate(mode));
+                if (!hotProductCodes.isEmpty()) {
+                    hot.addAll(restockRepository.extractHot(hotProductCodes));
+                }
+                restockRepository.mergeInventory(mode);
+                if (warehouseAllocator.isEnabled()) {
+                    restockRepository.mergeWarehouse(warehouseCode);
+                }
+                if (shardedStockCounter.isEnabled()) {
+                    restockRepository.mergeShards(mode, shardedStockCounter.getShards());
+                    shardedStockCounter.seedMissing();
+                }
+                if (!hot.isEmpty()) {
+                    hotStockEngine.release(toHotDeltas(hot, mode));
+                }
+            });
+        } catch (DataAccessException e) {
+            log.error("Error trying to import restock: ", e);
+            throw new ValidationException("Invalid restock file: ".concat(String.valueOf(e.getMostSpecificCause().getMessage())));
+        }
+
+        if (warehouseAllocator.isEnabled()) {
+            warehouseAllocator.reload(null);
+        }
+        stockSnapshot.refresh(EStockChangeReason.RESTOCK);
+
+        result.setHotProducts(hot.size());
+        result.setElapsedMs(System.currentTimeMillis() - start);
+        log.info("Restocked {} products from {} rows in {} ms ({} mode)",
+                result.getProducts(), result.getRows(), result.getElapsedMs(), mode);
+        return result;
+    }
+
+    private void validateWarehouse(ERestockMode mode, String warehouseCode) {
+        if (!warehouseAllocator.isEnabled()) {
+            if (!isEmpty(warehouseCode)) {
+                throw new ValidationException("Warehouse allocation is not enabled.");
+            }
+            return;
+        }
+        if (isEmpty(warehouseCode)) {
+            throw new ValidationException("Warehouse code must be informed.");
+        }
+        if (mode != ERestockMode.ADD) {
+            throw new ValidationException("Only ADD restocks are supported per warehouse.");
+        }
+    }
+
+    private List<StockDelta> toHotDeltas(List<StockDelta> hot, ERestockMode mode) {
+        if (mode == ERestockMode.ADD) {
+            return hot;
+        }
+        var deltas = new ArrayList<StockDelta>(hot.size());
+        hot.forEach(target -> deltas.add(new StockDelta(target.productCode(),
+                target.quantity() - hotStockEngine.available(target.productCode()))));
+        return deltas;
+    }
+
+    @FunctionalInterface
+    private interface CopyStep {
+        long run();
+    }
+
+    private class NdjsonRows implements Iterator<StockDelta> {
+        private final BufferedReader reader;
+        private StockDelta next;
+        private long line;
+
+        private NdjsonRows(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (next == null) {
+                    var json = reader.readLine();
+                    if (json == null) {
+                        return false;
+                    }
+                    line++;
+                    if (json.isBlank()) {
+                        continue;
+                    }
+                    next = jsonUtil.fromJson(json, StockDelta.class);
+                    if (next == null || isEmpty(next.productCode())) {
+                        throw new ValidationException("Invalid restock line " + line);
+                    }
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public StockDelta next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            var row = next;
+            next = null;
+            return row;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package br.com.microservices.orchestrated.inventoryservice.core.service;
+
+import br.com.microservices.orchestrated.inventoryservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.inventoryservice.core.dto.StockLevel;
+import br.com.microservices.orchestrated.inventoryservice.core.stock.StockSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+import static org.springframework.util.ObjectUtils.isEmpty;
+
+@Service
+@RequiredArgsConstructor
+public class StockQueryService {
+    private final StockSnapshot stockSnapshot;
+
+    @Value("${app.inventory.snapshot.max-product-codes}")
+    private int maxProductCodes;
+
+    public StockLevel findByProductCode(String productCode) {
+        var level = stockSnapshot.find(productCode);
+        if (level == null) {
+            throw new ValidationException("Stock not found by informed product code: ".concat(productCode));
+        }
+        return level;
+    }
+
+    public List<StockLevel> findByProductCodes(List<String> productCodes) {
+        if (isEmpty(productCodes)) {
+            throw new ValidationException("At least one product code must be informed");
+        }
+        if (productCodes.size() > maxProductCodes) {
+            throw new ValidationException("At most " + maxProductCodes + " product codes can be informed");
+        }
+        return stockSnapshot.find(productCodes.stream().distinct().sorted().toList());
+    }
+
+    public String eTag(StockLevel level) {
+        return "\"" + level.productCode() + "-" + level.version() + "\"";
+    }
+
+    public String eTag(List<StockLevel> levels) {
+        var hash = 1125899906842597L;
+        for (var level : levels) {
+            hash = 31 * hash + level.productCode().hashCode();
+            hash = 31 * hash + level.version();
+        }
+        return "\"" + Long.toHexString(hash) + "-" + levels.size() + "\"";
+    }
+}
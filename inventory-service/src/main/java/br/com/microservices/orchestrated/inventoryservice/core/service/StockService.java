@@ -0,0 +1,177 @@
+package br.com.microservices.orchestrated.inventoryservice.core.service;
+
+import br.com.microservices.orchestrated.inventoryservice.core.dto.Reservation;
+import br.com.microservices.orchestrated.inventoryservice.core.dto.StockDelta;
+import br.com.microservices.orchestrated.inventoryservice.core.dto.WarehouseAllocation;
+import br.com.microservices.orchestrated.inventoryservice.core.enums.EStockChangeReason;
+import br.com.microservices.orchestrated.inventoryservice.core.model.OrderInventory;
+import br.com.microservices.orchestrated.inventoryservice.core.respository.StockRepository;
+import br.com.microservices.orchestrated.inventoryservice.core.respository.WarehouseStockRepository;
+import br.com.microservices.orchestrated.inventoryservice.core.stock.HotStockEngine;
+import br.com.microservices.orchestrated.inventoryservice.core.stock.ShardedStockCounter;
+import br.com.microservices.orchestrated.inventoryservice.core.stock.StockSnapshot;
+import br.com.microservices.orchestrated.inventoryservice.core.stock.WarehouseAllocator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TreeMap;
+
+@Service
+@RequiredArgsConstructor
+public class StockService {
+    private final StockRepository stockRepository;
+    private final WarehouseStockRepository warehouseStockRepository;
+    private final HotStockEngine hotStockEngine;
+    private final ShardedStockCounter shardedStockCounter;
+    private final WarehouseAllocator warehouseAllocator;
+    private final StockSnapshot stockSnapshot;
+
+    public Reservation reserve(List<StockDelta> deltas) {
+        if (warehouseAllocator.isEnabled()) {
+            return reserveFromWarehouses(deltas);
+        }
+        var hot = new ArrayList<StockDelta>();
+        var cold = new ArrayList<StockDelta>();
+        split(deltas, hot, cold);
+
+        stockSnapshot.applyAfterCommit(taken(deltas), EStockChangeReason.RESERVATION);
+        var remaining = hot.isEmpty() ? new HashMap<String, Integer>() : hotStockEngine.reserve(hot);
+        if (remaining == null) {
+            return null;
+        }
+        if (!cold.isEmpty() && !decrementCold(cold)) {
+            return null;
+        }
+        if (!cold.isEmpty() && shardedStockCounter.isEnabled()) {
+            remaining.putAll(shardedStockCounter.findAvailable(cold.stream().map(StockDelta::productCode).toList()));
+        }
+        return new Reservation(remaining, List.of());
+    }
+
+    public void release(List<OrderInventory> holds) {
+        var quantities = new TreeMap<String, Integer>();
+        var allocated = new TreeMap<String, WarehouseAllocation>();
+        holds.forEach(hold -> {
+            quantities.merge(hold.getProductCode(), hold.getOrderQuantity(), Integer::sum);
+            if (hold.getWarehouseCode() != null) {
+                allocated.merge(hold.getWarehouseCode() + ":" + hold.getProductCode(),
+                        new WarehouseAllocation(hold.getWarehouseCode(), hold.getProductCode(), hold.getOrderQuantity()),
+                        (current, added) -> new WarehouseAllocation(current.warehouseCode(), current.productCode(),
+                                current.quantity() + added.quantity()));
+            }
+        });
+        var deltas = new ArrayList<StockDelta>(quantities.size());
+        quantities.forEach((productCode, quantity) -> deltas.add(new StockDelta(productCode, quantity)));
+        var allocations = new ArrayList<>(allocated.values());
+
+        stockSnapshot.applyAfterCommit(deltas, EStockChangeReason.RELEASE);
+        if (warehouseAllocator.isEnabled()) {
+            if (!allocations.isEmpty()) {
+                warehouseStockRepository.increment(allocations);
+            }
+            stockRepository.increment(deltas);
+            afterCommit(() -> warehouseAllocator.restore(allocations));
+            return;
+        }
+
+        var hot = new ArrayList<StockDelta>();
+        var cold = new ArrayList<StockDelta>();
+        split(deltas, hot, cold);
+        if (!cold.isEmpty()) {
+            incrementCold(cold);
+        }
+        if (!hot.isEmpty()) {
+            hotStockEngine.release(hot);
+        }
+    }
+
+    private Reservation reserveFromWarehouses(List<StockDelta> deltas) {
+        var allocations = warehouseAllocator.allocate(deltas);
+        if (allocations == null) {
+            return null;
+        }
+        stockSnapshot.applyAfterCommit(taken(deltas), EStockChangeReason.RESERVATION);
+        try {
+            if (!warehouseStockRepository.decrement(allocations) || !stockRepository.decrement(deltas)) {
+                reloadAfterCompletion(allocations, deltas.stream().map(StockDelta::productCode).toList());
+                return null;
+            }
+        } catch (RuntimeException e) {
+            warehouseAllocator.restore(allocations);
+            throw e;
+        }
+        afterRollback(() -> warehouseAllocator.restore(allocations));
+        var remaining = new HashMap<String, Integer>();
+        deltas.forEach(delta -> remaining.put(delta.productCode(), warehouseAllocator.available(delta.productCode())));
+        return new Reservation(remaining, allocations);
+    }
+
+    private List<StockDelta> taken(List<StockDelta> deltas) {
+        var taken = new ArrayList<StockDelta>(deltas.size());
+        deltas.forEach(delta -> taken.add(new StockDelta(delta.productCode(), -delta.quantity())));
+        return taken;
+    }
+
+    private void afterRollback(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    private void reloadAfterCompletion(List<WarehouseAllocation> allocations, List<String> productCodes) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            warehouseAllocator.reload(productCodes);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    warehouseAllocator.restore(allocations);
+                }
+                warehouseAllocator.reload(productCodes);
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private boolean decrementCold(List<StockDelta> cold) {
+        return shardedStockCounter.isEnabled()
+                ? shardedStockCounter.decrement(cold)
+                : stockRepository.decrement(cold);
+    }
+
+    private void incrementCold(List<StockDelta> cold) {
+        if (shardedStockCounter.isEnabled()) {
+            shardedStockCounter.increment(cold);
+        } else {
+            stockRepository.increment(cold);
+        }
+    }
+
+    private void split(List<StockDelta> deltas, List<StockDelta> hot, List<StockDelta> cold) {
+        deltas.forEach(delta -> (hotStockEngine.isHot(delta.productCode()) ? hot : cold).add(delta));
+    }
+}
@@ -0,0 +1,318 @@
+package br.com.microservices.orchestrated.inventoryservice.core.stock;
+
+import br.com.microservices.orchestrated.inventoryservice.core.dto.StockDelta;
+import br.com.microservices.orchestrated.inventoryservice.core.model.StockJournalCheckpoint;
+import br.com.microservices.orchestrated.inventoryservice.core.respository.StockJournalCheckpointRepository;
+import br.com.microservices.orchestrated.inventoryservice.core.respository.StockJournalCommitRepository;
+import br.com.microservices.orchestrated.inventoryservice.core.respository.StockRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.security.oauthbearer.internals.secured.ValidateException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@DependsOn("entityManagerFactory")
+public class HotStockEngine {
+    private static final int CHECKPOINT_ID = 1;
+
+    private final StockRepository stockRepository;
+    private final StockJournalCheckpointRepository stockJournalCheckpointRepository;
+    private final StockJournalCommitRepository stockJournalCommitRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, List<JournalEntry>> uncommitted = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Long> unflushedBatches = new ConcurrentSkipListSet<>();
+    private final ConcurrentLinkedQueue<JournalEntry> unflushed = new ConcurrentLinkedQueue<>();
+    private final Map<String, Integer> retryDeltas = new TreeMap<>();
+    private final Set<Long> retryBatches = new HashSet<>();
+
+    @Value("${app.inventory.hot-sku.enabled}")
+    private boolean enabled;
+
+    @Value("${app.inventory.hot-sku.codes}")
+    private String[] codes;
+
+    @Value("${app.inventory.hot-sku.journal-directory}")
+    private String journalDirectory;
+
+    @Value("${app.inventory.hot-sku.segment-max-bytes}")
+    private long segmentMaxBytes;
+
+    @Value("${app.inventory.hot-sku.flush-interval-ms}")
+    private long flushIntervalMs;
+
+    @Value("${app.inventory.hot-sku.sync-timeout-ms}")
+    private long syncTimeoutMs;
+
+    private volatile Map<String, AtomicInteger> counters = Map.of();
+    private StockJournal journal;
+    private ScheduledExecutorService flusher;
+    private volatile long durableSeq;
+    private long checkpointSeq;
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled || codes.length == 0) {
+            return;
+        }
+        var loaded = new HashMap<String, AtomicInteger>();
+        stockRepository
+                .findAvailable(Arrays.asList(codes))
+                .forEach((productCode, available) -> loaded.put(productCode, new AtomicInteger(available)));
+
+        journal = new StockJournal(Paths.get(journalDirectory), segmentMaxBytes, this::onDurable);
+        var checkpoint = stockJournalCheckpointRepository.findById(CHECKPOINT_ID);
+        if (checkpoint.isEmpty()) {
+            journal.reset();
+            transactionTemplate.executeWithoutResult(status -> {
+                stockJournalCommitRepository.deleteAllInBatch();
+                saveCheckpoint(0L);
+            });
+        } else {
+            var committed = new HashSet<Long>();
+            stockJournalCommitRepository.findAll().forEach(commit -> committed.add(commit.getBatchSeq()));
+            var replayed = new long[1];
+            checkpointSeq = checkpoint.get().getSeq();
+            durableSeq = journal.replay(checkpointSeq, entry -> {
+                if (!committed.contains(entry.batchSeq())) {
+                    return;
+                }
+                var counter = loaded.get(entry.productCode());
+                if (counter != null) {
+                    counter.addAndGet(entry.delta());
+                }
+                unflushedBatches.add(entry.batchSeq());
+                unflushed.add(entry);
+                replayed[0]++;
+            });
+            log.info("Recovered {} committed stock journal entries after checkpoint {}", replayed[0], checkpointSeq);
+        }
+        counters = Map.copyOf(loaded);
+        journal.start();
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "stock-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Hot stock engine started for {}", counters.keySet());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (journal == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        journal.stop();
+        flush();
+    }
+
+    public boolean isHot(String productCode) {
+        return counters.containsKey(productCode);
+    }
+
+    public List<String> productCodes() {
+        return List.copyOf(counters.keySet());
+    }
+
+    public Integer available(String productCode) {
+        var counter = counters.get(productCode);
+        return counter == null ? null : counter.get();
+    }
+
+    public Map<String, Integer> reserve(List<StockDelta> deltas) {
+        var reserved = new ArrayList<StockDelta>(deltas.size());
+        var remaining = new HashMap<String, Integer>();
+        for (var delta : deltas) {
+            var left = tryDecrement(counters.get(delta.productCode()), delta.quantity());
+            if (left < 0) {
+                restore(reserved);
+                return null;
+            }
+            reserved.add(delta);
+            remaining.put(delta.productCode(), left);
+        }
+
+        var journaled = new ArrayList<StockDelta>(deltas.size());
+        deltas.forEach(delta -> journaled.add(new StockDelta(delta.productCode(), -delta.quantity())));
+        long batchSeq;
+        try {
+            batchSeq = awaitDurable(journaled);
+        } catch (RuntimeException e) {
+            restore(reserved);
+            throw e;
+        }
+        commitWithTransaction(batchSeq, () -> { }, () -> restore(reserved));
+        return remaining;
+    }
+
+    public void release(List<StockDelta> deltas) {
+        var batchSeq = awaitDurable(deltas);
+        commitWithTransaction(batchSeq, () -> restore(deltas), () -> { });
+    }
+
+    private void commitWithTransaction(long batchSeq, Runnable onCommit, Runnable onRollback) {
+        try {
+            stockJournalCommitRepository.insert(batchSeq);
+        } catch (RuntimeException e) {
+            abort(batchSeq);
+            onRollback.run();
+            throw e;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            commit(batchSeq);
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    commit(batchSeq);
+                    onCommit.run();
+                } else {
+                    abort(batchSeq);
+                    onRollback.run();
+                }
+            }
+        });
+    }
+
+    private void onDurable(List<JournalEntry> entries) {
+        var batches = new HashMap<Long, List<JournalEntry>>();
+        entries.forEach(entry -> batches.computeIfAbsent(entry.batchSeq(), batchSeq -> new ArrayList<>()).add(entry));
+        unflushedBatches.addAll(batches.keySet());
+        uncommitted.putAll(batches);
+        durableSeq = entries.get(entries.size() - 1).seq();
+    }
+
+    private void commit(long batchSeq) {
+        var entries = uncommitted.remove(batchSeq);
+        if (entries != null) {
+            unflushed.addAll(entries);
+        }
+    }
+
+    private void abort(long batchSeq) {
+        uncommitted.remove(batchSeq);
+        unflushedBatches.remove(batchSeq);
+    }
+
+    private int tryDecrement(AtomicInteger counter, int quantity) {
+        while (true) {
+            var current = counter.get();
+            if (current < quantity) {
+                return -1;
+            }
+            if (counter.compareAndSet(current, current - quantity)) {
+                return current - quantity;
+            }
+        }
+    }
+
+    private void restore(List<StockDelta> deltas) {
+        deltas.forEach(delta -> counters.get(delta.productCode()).addAndGet(delta.quantity()));
+    }
+
+    private long awaitDurable(List<StockDelta> deltas) {
+        var append = journal.append(deltas);
+        try {
+            return append.get(syncTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            append.thenAccept(this::abort);
+            throw new ValidateException("Interrupted while writing stock journal.");
+        } catch (Exception e) {
+            append.thenAccept(this::abort);
+            throw new ValidateException("Stock journal unavailable: ".concat(String.valueOf(e.getMessage())));
+        }
+    }
+
+    private synchronized void flush() {
+        var aggregated = new TreeMap<>(retryDeltas);
+        var batches = new HashSet<>(retryBatches);
+        var lastDurableSeq = durableSeq;
+        JournalEntry entry;
+        while ((entry = unflushed.poll()) != null) {
+            aggregated.merge(entry.productCode(), entry.delta(), Integer::sum);
+            batches.add(entry.batchSeq());
+        }
+        var firstPending = unflushedBatches.stream().filter(batchSeq -> !batches.contains(batchSeq)).findFirst();
+        var nextCheckpointSeq = firstPending.map(batchSeq -> Math.min(lastDurableSeq, batchSeq - 1)).orElse(lastDurableSeq);
+        if (batches.isEmpty() && nextCheckpointSeq <= checkpointSeq) {
+            return;
+        }
+
+        var deltas = new ArrayList<StockDelta>(aggregated.size());
+        aggregated.forEach((productCode, delta) -> {
+            if (delta != 0) {
+                deltas.add(new StockDelta(productCode, delta));
+            }
+        });
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!deltas.isEmpty()) {
+                    stockRepository.increment(deltas);
+                }
+                if (!batches.isEmpty()) {
+                    stockJournalCommitRepository.deleteAllByIdInBatch(batches);
+                }
+                saveCheckpoint(Math.max(checkpointSeq, nextCheckpointSeq));
+            });
+            unflushedBatches.removeAll(batches);
+            retryDeltas.clear();
+            retryBatches.clear();
+            checkpointSeq = Math.max(checkpointSeq, nextCheckpointSeq);
+            journal.deleteSegmentsUpTo(checkpointSeq);
+        } catch (Exception e) {
+            log.error("Error trying to write hot stock behind, will retry: ", e);
+            retryDeltas.clear();
+            retryDeltas.putAll(aggregated);
+            retryBatches.addAll(batches);
+        }
+    }
+
+    private void saveCheckpoint(long seq) {
+        stockJournalCheckpointRepository.save(new StockJournalCheckpoint(CHECKPOINT_ID, seq, LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,4 @@
+package br.com.microservices.orchestrated.inventoryservice.core.stock;
+
+public record JournalEntry(long seq, long batchSeq, String productCode, int delta) {
+}
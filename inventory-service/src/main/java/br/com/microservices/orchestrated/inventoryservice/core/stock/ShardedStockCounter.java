@@ -0,0 +1,78 @@
+package br.com.microservices.orchestrated.inventoryservice.core.stock;
+
+import br.com.microservices.orchestrated.inventoryservice.core.dto.StockDelta;
+import br.com.microservices.orchestrated.inventoryservice.core.respository.ShardedStockRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@DependsOn("entityManagerFactory")
+public class ShardedStockCounter {
+    private final ShardedStockRepository shardedStockRepository;
+
+    @Value("${app.inventory.sharded-stock.enabled}")
+    private boolean enabled;
+
+    @Value("${app.inventory.sharded-stock.shards}")
+    private int shards;
+
+    @PostConstruct
+    public void seed() {
+        if (!enabled) {
+            return;
+        }
+        if (shards <= 0) {
+            throw new IllegalArgumentException("Sharded stock must have at least one shard");
+        }
+        var seeded = shardedStockRepository.seed(shards);
+        log.info("Sharded stock enabled with {} shards per product, {} shard rows seeded", shards, seeded);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    public int seedMissing() {
+        return shardedStockRepository.seed(shards);
+    }
+
+    public boolean decrement(List<StockDelta> deltas) {
+        for (var delta : deltas) {
+            if (!decrement(delta.productCode(), delta.quantity(), shards)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean decrement(String productCode, int quantity, int shardCount) {
+        var shard = ThreadLocalRandom.current().nextInt(shardCount);
+        if (shardedStockRepository.decrementShard(productCode, shard, quantity)) {
+            return true;
+        }
+        return shardedStockRepository.decrementAcrossShards(productCode, quantity);
+    }
+
+    public void increment(List<StockDelta> deltas) {
+        deltas.forEach(delta -> shardedStockRepository.incrementShard(
+                delta.productCode(), ThreadLocalRandom.current().nextInt(shards), delta.quantity()));
+    }
+
+    public Map<String, Integer> findAvailable(List<String> productCodes) {
+        return shardedStockRepository.findAvailable(productCodes);
+    }
+}
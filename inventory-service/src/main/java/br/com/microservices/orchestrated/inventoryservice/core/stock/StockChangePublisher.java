@@ -0,0 +1,117 @@
+package br.com.microservices.orchestrated.inventoryservice.core.stock;
+
+import br.com.microservices.orchestrated.inventoryservice.core.dto.StockChange;
+import br.com.microservices.orchestrated.inventoryservice.core.producer.KafkaProducer;
+import br.com.microservices.orchestrated.inventoryservice.core.utils.JsonUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockChangePublisher {
+    private final KafkaProducer kafkaProducer;
+    private final JsonUtil jsonUtil;
+    private final Map<String, StockChange> pending = new ConcurrentHashMap<>();
+    private final Map<String, Long> sentVersions = new ConcurrentHashMap<>();
+
+    @Value("${app.inventory.stock-changes.enabled}")
+    private boolean enabled;
+
+    @Value("${app.inventory.stock-changes.linger-ms}")
+    private long lingerMs;
+
+    @Value("${app.inventory.stock-changes.max-batch-size}")
+    private int maxBatchSize;
+
+    private ScheduledExecutorService publisher;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        publisher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "stock-change-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        publisher.scheduleWithFixedDelay(this::drain, lingerMs, lingerMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (publisher == null) {
+            return;
+        }
+        publisher.shutdown();
+        try {
+            publisher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drain();
+    }
+
+    public void publish(StockChange change) {
+        if (enabled) {
+            pending.merge(change.getProductCode(), change, this::coalesce);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (!pending.isEmpty()) {
+                var batch = new ArrayList<StockChange>(Math.min(maxBatchSize, pending.size()));
+                for (var productCode : pending.keySet()) {
+                    var change = pending.remove(productCode);
+                    if (change != null) {
+                        batch.add(change);
+                    }
+                    if (batch.size() >= maxBatchSize) {
+                        break;
+                    }
+                }
+                batch.forEach(this::send);
+            }
+        } catch (Exception e) {
+            log.error("Error trying to publish stock changes: ", e);
+        }
+    }
+
+    private void send(StockChange change) {
+        var productCode = change.getProductCode();
+        if (sentVersions.merge(productCode, change.getVersion(), Math::max) > change.getVersion()) {
+            return;
+        }
+        kafkaProducer
+                .sendStockChange(productCode, jsonUtil.toJson(change))
+                .whenComplete((result, error) -> {
+                    if (error == null) {
+                        return;
+                    }
+                    if (sentVersions.get(productCode) > change.getVersion()) {
+                        log.error("Error trying to publish stock change for {}, superseded by a newer version: ", productCode, error);
+                        return;
+                    }
+                    log.error("Error trying to publish stock change for {}, will retry: ", productCode, error);
+                    pending.merge(productCode, change, (current, failed) -> coalesce(failed, current));
+                });
+    }
+
+    private StockChange coalesce(StockChange previous, StockChange next) {
+        var latest = next.getVersion() >= previous.getVersion() ? next : previous;
+        return latest.toBuilder().delta(previous.getDelta() + next.getDelta()).build();
+    }
+}
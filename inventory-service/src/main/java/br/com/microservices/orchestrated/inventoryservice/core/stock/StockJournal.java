@@ -0,0 +1,234 @@
+package br.com.microservices.orchestrated.inventoryservice.core.stock;
+
+import br.com.microservices.orchestrated.inventoryservice.core.dto.StockDelta;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Slf4j
+public class StockJournal {
+    private static final String SEGMENT_PREFIX = "stock-journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int MAX_GROUP_SIZE = 4096;
+    private static final char FIELD_SEPARATOR = '\t';
+
+    private final Path directory;
+    private final long segmentMaxBytes;
+    private final Consumer<List<JournalEntry>> onDurable;
+    private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+
+    private volatile boolean running;
+    private long nextSeq = 1;
+    private FileChannel channel;
+    private long segmentSize;
+
+    public StockJournal(Path directory, long segmentMaxBytes, Consumer<List<JournalEntry>> onDurable) {
+        this.directory = directory;
+        this.segmentMaxBytes = segmentMaxBytes;
+        this.onDurable = onDurable;
+        this.writer = new Thread(this::writeLoop, "stock-journal-writer");
+        this.writer.setDaemon(true);
+    }
+
+    public void reset() throws IOException {
+        Files.createDirectories(directory);
+        for (var segment : segments()) {
+            Files.delete(segment);
+        }
+        nextSeq = 1;
+    }
+
+    public long replay(long afterSeq, Consumer<JournalEntry> consumer) throws IOException {
+        Files.createDirectories(directory);
+        var lastSeq = afterSeq;
+        for (var segment : segments()) {
+            truncateTornTail(segment);
+            try (var lines = Files.lines(segment, StandardCharsets.UTF_8)) {
+                for (var iterator = lines.iterator(); iterator.hasNext(); ) {
+                    var entry = parse(iterator.next());
+                    if (entry != null && entry.seq() > afterSeq) {
+                        consumer.accept(entry);
+                        lastSeq = Math.max(lastSeq, entry.seq());
+                    }
+                }
+            }
+        }
+        nextSeq = lastSeq + 1;
+        return lastSeq;
+    }
+
+    public void start() throws IOException {
+        openSegment();
+        running = true;
+        writer.start();
+    }
+
+    public void stop() {
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.error("Error trying to close stock journal: ", e);
+        }
+    }
+
+    public CompletableFuture<Long> append(List<StockDelta> deltas) {
+        var pending = new PendingWrite(deltas, new CompletableFuture<>());
+        if (!running) {
+            pending.future().completeExceptionally(new IllegalStateException("Stock journal is not running."));
+            return pending.future();
+        }
+        queue.add(pending);
+        return pending.future();
+    }
+
+    public void deleteSegmentsUpTo(long checkpointSeq) {
+        try {
+            var segments = segments();
+            for (var i = 0; i < segments.size() - 1; i++) {
+                if (firstSeqOf(segments.get(i + 1)) - 1 > checkpointSeq) {
+                    return;
+                }
+                Files.deleteIfExists(segments.get(i));
+            }
+        } catch (IOException e) {
+            log.error("Error trying to delete flushed stock journal segments: ", e);
+        }
+    }
+
+    private void writeLoop() {
+        var group = new ArrayList<PendingWrite>(MAX_GROUP_SIZE);
+        while (running || !queue.isEmpty()) {
+            try {
+                var first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                queue.drainTo(group, MAX_GROUP_SIZE - 1);
+                writeGroup(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void writeGroup(List<PendingWrite> group) {
+        var entries = new ArrayList<JournalEntry>();
+        var text = new StringBuilder();
+        var batches = new long[group.size()];
+        for (var i = 0; i < group.size(); i++) {
+            batches[i] = nextSeq;
+            for (var delta : group.get(i).deltas()) {
+                var entry = new JournalEntry(nextSeq++, batches[i], delta.productCode(), delta.quantity());
+                entries.add(entry);
+                text.append(entry.seq()).append(FIELD_SEPARATOR)
+                        .append(entry.batchSeq()).append(FIELD_SEPARATOR)
+                        .append(entry.productCode()).append(FIELD_SEPARATOR)
+                        .append(entry.delta()).append('\n');
+            }
+        }
+        try {
+            var buffer = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                segmentSize += channel.write(buffer);
+            }
+            channel.force(false);
+            onDurable.accept(entries);
+            for (var i = 0; i < group.size(); i++) {
+                group.get(i).future().complete(batches[i]);
+            }
+            if (segmentSize >= segmentMaxBytes) {
+                channel.close();
+                openSegment();
+            }
+        } catch (Exception e) {
+            log.error("Error trying to write stock journal: ", e);
+            group.forEach(pending -> pending.future().completeExceptionally(e));
+        }
+    }
+
+    private void openSegment() throws IOException {
+        var segment = directory.resolve(SEGMENT_PREFIX + String.format("%020d", nextSeq) + SEGMENT_SUFFIX);
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentSize = channel.size();
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted(Comparator.comparingLong(this::firstSeqOf))
+                    .toList();
+        }
+    }
+
+    private void truncateTornTail(Path segment) throws IOException {
+        try (var file = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            var position = file.size();
+            var last = ByteBuffer.allocate(1);
+            while (position > 0) {
+                last.clear();
+                file.read(last, position - 1);
+                if (last.get(0) == '\n') {
+                    break;
+                }
+                position--;
+            }
+            if (position < file.size()) {
+                log.warn("Truncating torn stock journal tail in {} at {} bytes", segment, position);
+                file.truncate(position);
+                file.force(false);
+            }
+        }
+    }
+
+    private long firstSeqOf(Path segment) {
+        var name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private JournalEntry parse(String line) {
+        try {
+            var first = line.indexOf(FIELD_SEPARATOR);
+            var second = line.indexOf(FIELD_SEPARATOR, first + 1);
+            var third = line.indexOf(FIELD_SEPARATOR, second + 1);
+            return new JournalEntry(
+                    Long.parseLong(line, 0, first, 10),
+                    Long.parseLong(line, first + 1, second, 10),
+                    line.substring(second + 1, third),
+                    Integer.parseInt(line, third + 1, line.length(), 10));
+        } catch (RuntimeException e) {
+            log.warn("Ignoring corrupted stock journal line: {}", line);
+            return null;
+        }
+    }
+
+    private record PendingWrite(List<StockDelta> deltas, CompletableFuture<Long> future) {
+    }
+}
@@ -0,0 +1,167 @@
+package br.com.microservices.orchestrated.inventoryservice.core.stock;
+
+import br.com.microservices.orchestrated.inventoryservice.core.dto.StockChange;
+import br.com.microservices.orchestrated.inventoryservice.core.dto.StockDelta;
+import br.com.microservices.orchestrated.inventoryservice.core.dto.StockLevel;
+import br.com.microservices.orchestrated.inventoryservice.core.enums.EStockChangeReason;
+import br.com.microservices.orchestrated.inventoryservice.core.respository.InventoryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@DependsOn({"entityManagerFactory", "hotStockEngine", "shardedStockCounter"})
+public class StockSnapshot {
+    private final InventoryRepository inventoryRepository;
+    private final HotStockEngine hotStockEngine;
+    private final ShardedStockCounter shardedStockCounter;
+    private final StockChangePublisher stockChangePublisher;
+    private final Map<String, StockLevel> levels = new ConcurrentHashMap<>();
+    private final Map<String, Activity> activities = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+
+    @Value("${app.inventory.snapshot.refresh-interval-ms}")
+    private long refreshIntervalMs;
+
+    private ScheduledExecutorService refresher;
+
+    @PostConstruct
+    public void start() {
+        refresh(EStockChangeReason.RECONCILIATION);
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "stock-snapshot-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(() -> {
+            try {
+                refresh(EStockChangeReason.RECONCILIATION);
+            } catch (Exception e) {
+                log.error("Error trying to refresh stock snapshot: ", e);
+            }
+        }, refreshIntervalMs, refreshIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        refresher.shutdownNow();
+    }
+
+    public StockLevel find(String productCode) {
+        return levels.get(productCode);
+    }
+
+    public List<StockLevel> find(List<String> productCodes) {
+        var found = new ArrayList<StockLevel>(productCodes.size());
+        productCodes.forEach(productCode -> {
+            var level = levels.get(productCode);
+            if (level != null) {
+                found.add(level);
+            }
+        });
+        return found;
+    }
+
+    public void applyAfterCommit(List<StockDelta> deltas, EStockChangeReason reason) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Stock changes must run inside a transaction.");
+        }
+        deltas.forEach(delta -> activities.computeIfAbsent(delta.productCode(), productCode -> new Activity()).begin());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    apply(deltas, reason);
+                }
+                deltas.forEach(delta -> activities.get(delta.productCode()).end());
+            }
+        });
+    }
+
+    private void apply(List<StockDelta> deltas, EStockChangeReason reason) {
+        deltas.forEach(delta -> levels.computeIfPresent(delta.productCode(), (productCode, level) ->
+                changed(productCode, level.available() + delta.quantity(), delta.quantity(), reason)));
+    }
+
+    public void refresh(EStockChangeReason reason) {
+        var stamps = new HashMap<String, Long>();
+        activities.forEach((productCode, activity) -> stamps.put(productCode, activity.idleStamp()));
+        var current = new HashMap<String, Integer>();
+        inventoryRepository
+                .findAll()
+                .forEach(inventory -> current.put(inventory.getProductCode(), inventory.getAvailable()));
+        if (shardedStockCounter.isEnabled()) {
+            current.putAll(shardedStockCounter.findAvailable(new ArrayList<>(current.keySet())));
+        }
+        current.replaceAll((productCode, available) -> {
+            var hot = hotStockEngine.available(productCode);
+            return hot == null ? available : hot;
+        });
+        current.forEach((productCode, available) -> levels.compute(productCode, (code, level) -> {
+            if (level != null && (level.available() == available || !unchangedSince(code, stamps.getOrDefault(code, 0L)))) {
+                return level;
+            }
+            return changed(code, available, level == null ? available : available - level.available(), reason);
+        }));
+        levels.keySet().retainAll(current.keySet());
+    }
+
+    private boolean unchangedSince(String productCode, long stamp) {
+        var activity = activities.get(productCode);
+        return stamp >= 0 && (activity == null ? 0L : activity.stamp.get()) == stamp;
+    }
+
+    private StockLevel changed(String productCode, int available, int delta, EStockChangeReason reason) {
+        var level = new StockLevel(productCode, available, versions.incrementAndGet());
+        stockChangePublisher.publish(StockChange
+                .builder()
+                .productCode(productCode)
+                .available(available)
+                .delta(delta)
+                .version(level.version())
+                .reason(reason)
+                .changedAt(LocalDateTime.now())
+                .build());
+        return level;
+    }
+
+    private static final class Activity {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong stamp = new AtomicLong();
+
+        private void begin() {
+            inFlight.incrementAndGet();
+            stamp.incrementAndGet();
+        }
+
+        private void end() {
+            inFlight.decrementAndGet();
+            stamp.incrementAndGet();
+        }
+
+        private long idleStamp() {
+            var current = stamp.get();
+            return inFlight.get() > 0 ? -1L : current;
+        }
+    }
+}
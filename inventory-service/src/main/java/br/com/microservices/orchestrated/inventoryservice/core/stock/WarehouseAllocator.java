@@ -0,0 +1,258 @@
+package br.com.microservices.orchestrated.inventoryservice.core.stock;
+
+import br.com.microservices.orchestrated.inventoryservice.core.dto.StockDelta;
+import br.com.microservices.orchestrated.inventoryservice.core.dto.WarehouseAllocation;
+import br.com.microservices.orchestrated.inventoryservice.core.respository.WarehouseStockRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@DependsOn({"entityManagerFactory", "hotStockEngine", "shardedStockCounter"})
+public class WarehouseAllocator {
+    private static final int MAX_WAREHOUSES = Long.SIZE;
+
+    private final WarehouseStockRepository warehouseStockRepository;
+    private final HotStockEngine hotStockEngine;
+    private final ShardedStockCounter shardedStockCounter;
+    private final Map<String, SkuStock> stocks = new ConcurrentHashMap<>();
+    private final Map<String, Integer> warehouseIndexes = new ConcurrentHashMap<>();
+    private final List<String> warehouses = new CopyOnWriteArrayList<>();
+
+    @Value("${app.inventory.warehouse.enabled}")
+    private boolean enabled;
+
+    @Value("${app.inventory.warehouse.priority}")
+    private String[] priority;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (!hotStockEngine.productCodes().isEmpty() || shardedStockCounter.isEnabled()) {
+            throw new IllegalStateException("Warehouse allocation cannot be combined with hot SKU or sharded stock");
+        }
+        for (var warehouseCode : priority) {
+            indexOf(warehouseCode);
+        }
+        reload(null);
+        log.info("Warehouse allocation enabled for {} products across warehouses {}", stocks.size(), warehouses);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void reload(List<String> productCodes) {
+        var loaded = new HashMap<String, int[]>();
+        warehouseStockRepository.forEach(productCodes, stock -> {
+            var index = indexOf(stock.warehouseCode());
+            var available = loaded.computeIfAbsent(stock.productCode(), productCode -> new int[MAX_WAREHOUSES]);
+            available[index] = stock.quantity();
+        });
+        if (productCodes != null) {
+            productCodes.forEach(productCode -> loaded.putIfAbsent(productCode, new int[MAX_WAREHOUSES]));
+        }
+        loaded.forEach((productCode, available) -> {
+            var stock = stocks.computeIfAbsent(productCode, code -> new SkuStock());
+            stock.lock.lock();
+            try {
+                stock.available = available;
+            } finally {
+                stock.lock.unlock();
+            }
+        });
+    }
+
+    public List<WarehouseAllocation> allocate(List<StockDelta> lines) {
+        var sorted = new ArrayList<>(lines);
+        sorted.sort(Comparator.comparing(StockDelta::productCode));
+        var skus = new SkuStock[sorted.size()];
+        for (var i = 0; i < skus.length; i++) {
+            skus[i] = stocks.get(sorted.get(i).productCode());
+            if (skus[i] == null) {
+                return null;
+            }
+        }
+
+        var locked = 0;
+        try {
+            for (; locked < skus.length; locked++) {
+                skus[locked].lock.lock();
+            }
+            var plan = plan(sorted, skus);
+            if (plan != null) {
+                plan.forEach(allocation -> add(stocks.get(allocation.productCode()), allocation, -1));
+            }
+            return plan;
+        } finally {
+            for (var i = locked - 1; i >= 0; i--) {
+                skus[i].lock.unlock();
+            }
+        }
+    }
+
+    public void restore(List<WarehouseAllocation> allocations) {
+        allocations.forEach(allocation -> {
+            var stock = stocks.computeIfAbsent(allocation.productCode(), code -> new SkuStock());
+            stock.lock.lock();
+            try {
+                add(stock, allocation, 1);
+            } finally {
+                stock.lock.unlock();
+            }
+        });
+    }
+
+    public int available(String productCode) {
+        var stock = stocks.get(productCode);
+        if (stock == null) {
+            return 0;
+        }
+        stock.lock.lock();
+        try {
+            var total = 0;
+            for (var available : stock.available) {
+                total += available;
+            }
+            return total;
+        } finally {
+            stock.lock.unlock();
+        }
+    }
+
+    private List<WarehouseAllocation> plan(List<StockDelta> lines, SkuStock[] skus) {
+        var warehouseCount = warehouses.size();
+        var lineCount = lines.size();
+        var fullMasks = new long[lineCount];
+        var common = warehouseCount == MAX_WAREHOUSES ? -1L : (1L << warehouseCount) - 1;
+        for (var i = 0; i < lineCount; i++) {
+            var quantity = lines.get(i).quantity();
+            var total = 0L;
+            for (var warehouse = 0; warehouse < warehouseCount; warehouse++) {
+                var available = skus[i].available[warehouse];
+                total += available;
+                if (available >= quantity) {
+                    fullMasks[i] |= 1L << warehouse;
+                }
+            }
+            if (total < quantity) {
+                return null;
+            }
+            common &= fullMasks[i];
+        }
+
+        var plan = new ArrayList<WarehouseAllocation>(lineCount);
+        if (common != 0) {
+            var warehouseCode = warehouses.get(Long.numberOfTrailingZeros(common));
+            lines.forEach(line -> plan.add(new WarehouseAllocation(warehouseCode, line.productCode(), line.quantity())));
+            return plan;
+        }
+
+        var pending = new boolean[lineCount];
+        Arrays.fill(pending, true);
+        var shipping = 0L;
+        while (true) {
+            var best = -1;
+            var bestLines = 0;
+            for (var warehouse = 0; warehouse < warehouseCount; warehouse++) {
+                var covered = 0;
+                for (var i = 0; i < lineCount; i++) {
+                    if (pending[i] && (fullMasks[i] & (1L << warehouse)) != 0) {
+                        covered++;
+                    }
+                }
+                if (covered > bestLines) {
+                    best = warehouse;
+                    bestLines = covered;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            shipping |= 1L << best;
+            for (var i = 0; i < lineCount; i++) {
+                if (pending[i] && (fullMasks[i] & (1L << best)) != 0) {
+                    plan.add(new WarehouseAllocation(warehouses.get(best), lines.get(i).productCode(), lines.get(i).quantity()));
+                    pending[i] = false;
+                }
+            }
+        }
+
+        for (var i = 0; i < lineCount; i++) {
+            if (pending[i]) {
+                shipping = split(lines.get(i), skus[i], warehouseCount, shipping, plan);
+            }
+        }
+        return plan;
+    }
+
+    private long split(StockDelta line, SkuStock sku, int warehouseCount, long shipping, List<WarehouseAllocation> plan) {
+        var remaining = line.quantity();
+        var taken = 0L;
+        for (var warehouse = 0; warehouse < warehouseCount && remaining > 0; warehouse++) {
+            if ((shipping & (1L << warehouse)) != 0 && sku.available[warehouse] > 0) {
+                var quantity = Math.min(remaining, sku.available[warehouse]);
+                plan.add(new WarehouseAllocation(warehouses.get(warehouse), line.productCode(), quantity));
+                remaining -= quantity;
+                taken |= 1L << warehouse;
+            }
+        }
+        while (remaining > 0) {
+            var best = -1;
+            for (var warehouse = 0; warehouse < warehouseCount; warehouse++) {
+                if ((taken & (1L << warehouse)) == 0 && sku.available[warehouse] > 0
+                        && (best < 0 || sku.available[warehouse] > sku.available[best])) {
+                    best = warehouse;
+                }
+            }
+            var quantity = Math.min(remaining, sku.available[best]);
+            plan.add(new WarehouseAllocation(warehouses.get(best), line.productCode(), quantity));
+            remaining -= quantity;
+            taken |= 1L << best;
+            shipping |= 1L << best;
+        }
+        return shipping;
+    }
+
+    private void add(SkuStock stock, WarehouseAllocation allocation, int sign) {
+        stock.available[indexOf(allocation.warehouseCode())] += sign * allocation.quantity();
+    }
+
+    private int indexOf(String warehouseCode) {
+        var index = warehouseIndexes.get(warehouseCode);
+        if (index != null) {
+            return index;
+        }
+        synchronized (warehouses) {
+            return warehouseIndexes.computeIfAbsent(warehouseCode, code -> {
+                if (warehouses.size() >= MAX_WAREHOUSES) {
+                    throw new IllegalStateException("At most " + MAX_WAREHOUSES + " warehouses are supported");
+                }
+                warehouses.add(code);
+                return warehouses.size() - 1;
+            });
+        }
+    }
+
+    private static class SkuStock {
+        private final ReentrantLock lock = new ReentrantLock();
+        private int[] available = new int[MAX_WAREHOUSES];
+    }
+}
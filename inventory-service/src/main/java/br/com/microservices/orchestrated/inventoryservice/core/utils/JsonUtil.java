@@ -18,6 +18,14 @@ public class JsonUtil {
         }
     }
 
+    public <T> T fromJson(final String json, final Class<T> type) {
+        try{
+            return objectMapper.readValue(json, type);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     public Event toEvent(final String json) {
         try{
             return objectMapper.readValue(json, Event.class);
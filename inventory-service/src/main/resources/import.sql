@@ -1,4 +1,13 @@
 INSERT INTO public.inventory (id, product_code, available) VALUES (1, 'COMIC_BOOKS', 4);
 INSERT INTO public.inventory (id, product_code, available) VALUES (2, 'BOOKS', 2);
 INSERT INTO public.inventory (id, product_code, available) VALUES (3, 'MOVIES', 5);
-INSERT INTO public.inventory (id, product_code, available) VALUES (4, 'MUSIC', 9);
\ No newline at end of file
+INSERT INTO public.inventory (id, product_code, available) VALUES (4, 'MUSIC', 9);
+SELECT setval(pg_get_serial_sequence('inventory', 'id'), (SELECT MAX(id) FROM inventory));
+INSERT INTO public.warehouse_stock (warehouse_code, product_code, available) VALUES ('SAO_PAULO', 'COMIC_BOOKS', 2);
+INSERT INTO public.warehouse_stock (warehouse_code, product_code, available) VALUES ('RIO_DE_JANEIRO', 'COMIC_BOOKS', 2);
+INSERT INTO public.warehouse_stock (warehouse_code, product_code, available) VALUES ('SAO_PAULO', 'BOOKS', 2);
+INSERT INTO public.warehouse_stock (warehouse_code, product_code, available) VALUES ('SAO_PAULO', 'MOVIES', 3);
+INSERT INTO public.warehouse_stock (warehouse_code, product_code, available) VALUES ('RIO_DE_JANEIRO', 'MOVIES', 2);
+INSERT INTO public.warehouse_stock (warehouse_code, product_code, available) VALUES ('SAO_PAULO', 'MUSIC', 4);
+INSERT INTO public.warehouse_stock (warehouse_code, product_code, available) VALUES ('RIO_DE_JANEIRO', 'MUSIC', 5);
+CREATE INDEX IF NOT EXISTS idx_order_inventory_transaction_status ON order_inventory (transaction_id, status);
@@ -10,6 +10,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.listener.ConsumerProperties;
@@ -40,6 +41,15 @@ public class KafkaConfig {
     @Value("${spring.kafka.topic.notify-ending}")
     private String notifyEndingTopic;
 
+    @Value("${app.notify-ending.batch.max-size}")
+    private Integer notifyEndingBatchMaxSize;
+
+    @Value("${app.notify-ending.batch.linger-ms}")
+    private Integer notifyEndingBatchLingerMs;
+
+    @Value("${app.notify-ending.batch.min-bytes}")
+    private Integer notifyEndingBatchMinBytes;
+
     @Bean
     public ConsumerFactory<String, String> consumerFactory() {
         return new DefaultKafkaConsumerFactory<>(consumerProps());
@@ -57,6 +67,19 @@ public class KafkaConfig {
         return props;
     }
 
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> notifyEndingBatchContainerFactory() {
+        var props = consumerProps();
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, notifyEndingBatchMaxSize);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, notifyEndingBatchLingerMs);
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, notifyEndingBatchMinBytes);
+
+        var factory = new ConcurrentKafkaListenerContainerFactory<String, String>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        factory.setBatchListener(true);
+        return factory;
+    }
+
     @Bean
     public ProducerFactory<String, String> producerFactory() {
         return new DefaultKafkaProducerFactory<>(producerProps());
@@ -0,0 +1,100 @@
+package br.com.microservices.orchestrated.orderservice.config.mongo;
+
+import br.com.microservices.orchestrated.orderservice.core.document.Event;
+import br.com.microservices.orchestrated.orderservice.core.document.IdempotencyKey;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+
+import java.time.Duration;
+
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class MongoIndexConfig {
+    private static final String LEGACY_TRANSACTION_INDEX = "event_transaction_id";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${app.event.retention-days}")
+    private long retentionDays;
+
+    @Value("${app.event.archive.after-days}")
+    private long archiveAfterDays;
+
+    @Value("${app.idempotency.ttl-hours}")
+    private long idempotencyTtlHours;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        if (retentionDays <= archiveAfterDays) {
+            log.warn("Event retention of {} days is not greater than archive delay of {} days. "
+                    + "Events may expire before being archived.", retentionDays, archiveAfterDays);
+        }
+        ensureTtlIndex(Event.class, "event_created_at_ttl", Duration.ofDays(retentionDays));
+        createNotificationIndex();
+        createExportIndex();
+        ensureTtlIndex(IdempotencyKey.class, "idempotency_key_created_at_ttl", Duration.ofHours(idempotencyTtlHours));
+    }
+
+    private void ensureTtlIndex(Class<?> documentClass, String indexName, Duration expireAfter) {
+        var indexOps = mongoTemplate.indexOps(documentClass);
+        try {
+            var existing = indexOps.getIndexInfo().stream()
+                    .filter(index -> indexName.equals(index.getName()))
+                    .findFirst();
+            if (existing.isEmpty()) {
+                indexOps.ensureIndex(new Index()
+                        .on("createdAt", Sort.Direction.ASC)
+                        .named(indexName)
+                        .expire(expireAfter));
+                return;
+            }
+            if (!existing.get().getExpireAfter().map(expireAfter::equals).orElse(false)) {
+                var collection = mongoTemplate.getCollectionName(documentClass);
+                mongoTemplate.executeCommand(new Document("collMod", collection)
+                        .append("index", new Document("name", indexName)
+                                .append("expireAfterSeconds", expireAfter.toSeconds())));
+                log.info("TTL index {} on {} changed to {} seconds", indexName, collection, expireAfter.toSeconds());
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Error trying to apply TTL index " + indexName, e);
+        }
+    }
+
+    private void createExportIndex() {
+        try {
+            mongoTemplate
+                    .indexOps(Event.class)
+                    .ensureIndex(new Index()
+                            .on("payload.createdAt", Sort.Direction.ASC)
+                            .named("event_order_created_at"));
+        } catch (Exception e) {
+            throw new IllegalStateException("Error trying to create order creation index on event collection", e);
+        }
+    }
+
+    private void createNotificationIndex() {
+        var indexOps = mongoTemplate.indexOps(Event.class);
+        try {
+            if (indexOps.getIndexInfo().stream().anyMatch(index -> LEGACY_TRANSACTION_INDEX.equals(index.getName()))) {
+                indexOps.dropIndex(LEGACY_TRANSACTION_INDEX);
+            }
+            indexOps.ensureIndex(new Index()
+                    .on("transactionId", Sort.Direction.ASC)
+                    .on("source", Sort.Direction.ASC)
+                    .on("status", Sort.Direction.ASC)
+                    .named("event_transaction_id_source_status")
+                    .unique());
+        } catch (Exception e) {
+            throw new IllegalStateException("Error trying to create notification index on event collection", e);
+        }
+    }
+}
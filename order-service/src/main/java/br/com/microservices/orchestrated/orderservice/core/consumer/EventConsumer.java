@@ -1,29 +1,46 @@
 package br.com.microservices.orchestrated.orderservice.core.consumer;
 
 import br.com.microservices.orchestrated.orderservice.core.service.EventService;
+import br.com.microservices.orchestrated.orderservice.core.service.OrderService;
 import br.com.microservices.orchestrated.orderservice.core.utils.JsonUtil;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Objects;
+
 @Slf4j
 @Component
 @AllArgsConstructor
 public class EventConsumer {
     private final EventService eventService;
+    private final OrderService orderService;
     private final JsonUtil jsonUtil;
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
-            topics = "${spring.kafka.topic.notify-ending}"
+            topics = "${spring.kafka.topic.notify-ending}",
+            containerFactory = "notifyEndingBatchContainerFactory"
     )
-    public void consumeNotifyEndingEvent(String payload) {
-        log.info("Receiving ending notification event from notify-ending topic", payload);
+    public void consumeNotifyEndingEvents(List<String> payloads) {
+        log.info("Receiving {} ending notification events from notify-ending topic", payloads.size());
+
+        var events = payloads
+                .stream()
+                .map(jsonUtil::toEvent)
+                .filter(Objects::nonNull)
+                .toList();
 
-        var event = jsonUtil.toEvent(payload);
-        eventService.notifyEnding(event);
+        if (events.size() < payloads.size()) {
+            log.error("Discarding {} ending notification events that could not be read", payloads.size() - events.size());
+        }
+        if (events.isEmpty()) {
+            return;
+        }
 
-        log.info(event.toString());
+        eventService.notifyEnding(events);
+        orderService.updateOrderSummaries(events);
     }
 }
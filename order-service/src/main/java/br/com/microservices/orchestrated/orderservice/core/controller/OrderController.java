@@ -4,8 +4,11 @@ import br.com.microservices.orchestrated.orderservice.core.document.Order;
 import br.com.microservices.orchestrated.orderservice.core.dto.OrderRequest;
 import br.com.microservices.orchestrated.orderservice.core.service.OrderService;
 import lombok.AllArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -16,7 +19,13 @@ public class OrderController {
     private final OrderService orderService;
 
     @PostMapping
-    public Order createOrder(@RequestBody OrderRequest orderRequest) {
-        return orderService.createOrder(orderRequest);
+    public Order createOrder(@RequestBody OrderRequest orderRequest,
+                             @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return orderService.createOrder(orderRequest, idempotencyKey);
+    }
+
+    @GetMapping("{id}")
+    public Order findById(@PathVariable String id) {
+        return orderService.findById(id);
     }
 }
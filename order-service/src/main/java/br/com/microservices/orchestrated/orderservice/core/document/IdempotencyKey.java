@@ -0,0 +1,24 @@
+package br.com.microservices.orchestrated.orderservice.core.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "idempotency_key")
+public class IdempotencyKey {
+    @Id
+    private String key;
+    private String orderId;
+    private String requestHash;
+    private LocalDateTime leaseUntil;
+    private LocalDateTime createdAt;
+}
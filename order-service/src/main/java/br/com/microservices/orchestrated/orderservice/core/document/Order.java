@@ -22,6 +22,10 @@ public class Order {
     private List<OrderProducts> products;
     private LocalDateTime createdAt;
     private String transactionId;
+    private String customerId;
     private double totalAmount;
     private int totalItems;
+    private String status;
+    private String source;
+    private LocalDateTime updatedAt;
 }
@@ -0,0 +1,15 @@
+package br.com.microservices.orchestrated.orderservice.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FinishedEvent {
+    private String transactionId;
+    private String orderId;
+    private String status;
+    private double totalAmount;
+}
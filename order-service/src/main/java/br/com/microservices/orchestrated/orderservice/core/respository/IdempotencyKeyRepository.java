@@ -0,0 +1,19 @@
+package br.com.microservices.orchestrated.orderservice.core.respository;
+
+import br.com.microservices.orchestrated.orderservice.core.document.IdempotencyKey;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyKeyRepository extends MongoRepository<IdempotencyKey, String> {
+
+    @Query("{ '_id': ?0, 'leaseUntil': { '$lt': ?1 } }")
+    @Update("{ '$set': { 'leaseUntil': ?2 } }")
+    long takeOverExpiredLease(String key, LocalDateTime now, LocalDateTime leaseUntil);
+
+    @Query("{ '_id': ?0 }")
+    @Update("{ '$set': { 'leaseUntil': ?1 } }")
+    long extendLease(String key, LocalDateTime leaseUntil);
+}
@@ -0,0 +1,243 @@
+package br.com.microservices.orchestrated.orderservice.core.service;
+
+import br.com.microservices.orchestrated.orderservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.orderservice.core.document.Event;
+import br.com.microservices.orchestrated.orderservice.core.dto.EventFilters;
+import br.com.microservices.orchestrated.orderservice.core.utils.JsonUtil;
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.util.ObjectUtils.isEmpty;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EventArchiveService {
+    private static final DateTimeFormatter PARTITION_FORMAT = DateTimeFormatter.ofPattern("yyyy/MM/dd");
+    private static final String FILE_PATTERN = "events-%d-%d.ndjson.zst";
+    private static final String FILE_SUFFIX = ".ndjson.zst";
+
+    private final MongoTemplate mongoTemplate;
+    private final JsonUtil jsonUtil;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${app.event.archive.enabled}")
+    private boolean enabled;
+
+    @Value("${app.event.archive.after-days}")
+    private long archiveAfterDays;
+
+    @Value("${app.event.archive.directory}")
+    private String directory;
+
+    @Value("${app.event.archive.file-max-events}")
+    private int fileMaxEvents;
+
+    @Scheduled(cron = "${app.event.archive.cron}")
+    public void archiveAgedEvents() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            var cutoff = LocalDateTime.now().minusDays(archiveAfterDays);
+            var archived = archiveEventsBefore(cutoff);
+            log.info("Archived {} events created before {}", archived, cutoff);
+        } catch (Exception e) {
+            log.error("Error trying to archive events: ", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private long archiveEventsBefore(LocalDateTime cutoff) throws IOException {
+        var query = Query
+                .query(where("createdAt").lt(cutoff))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt"));
+        query.cursorBatchSize(fileMaxEvents);
+
+        var archived = 0L;
+        var part = new ArchivePart();
+        try (var events = mongoTemplate.stream(query, Event.class)) {
+            var iterator = events.iterator();
+            while (iterator.hasNext()) {
+                var event = iterator.next();
+                var date = event.getCreatedAt().toLocalDate();
+                if (part.isFull(date)) {
+                    archived += flush(part);
+                }
+                part.add(date, event, jsonUtil.toJson(event));
+            }
+            archived += flush(part);
+        } finally {
+            part.discard();
+        }
+        return archived;
+    }
+
+    private long flush(ArchivePart part) throws IOException {
+        if (part.ids.isEmpty()) {
+            return 0;
+        }
+        var file = part.complete();
+        var removed = mongoTemplate
+                .remove(Query.query(where("_id").in(part.ids)), Event.class)
+                .getDeletedCount();
+        log.info("Archived {} events into {}", removed, file);
+
+        part.ids.clear();
+        return removed;
+    }
+
+    private void force(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    public List<Event> findArchived(EventFilters filters, LocalDate startDate, LocalDate endDate) {
+        validateArchiveFilters(filters, startDate, endDate);
+        var key = isEmpty(filters.getOrderId()) ? filters.getTransactionId() : filters.getOrderId();
+
+        return listArchiveFiles(startDate, endDate)
+                .parallelStream()
+                .flatMap(file -> readMatching(file, key))
+                .filter(event -> matches(event, filters))
+                .sorted(Comparator.comparing(Event::getCreatedAt).reversed())
+                .toList();
+    }
+
+    private List<Path> listArchiveFiles(LocalDate startDate, LocalDate endDate) {
+        var files = new ArrayList<Path>();
+        for (var date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            var partition = Paths.get(directory).resolve(date.format(PARTITION_FORMAT));
+            if (!Files.isDirectory(partition)) {
+                continue;
+            }
+            try (var entries = Files.list(partition)) {
+                entries
+                        .filter(file -> file.getFileName().toString().endsWith(FILE_SUFFIX))
+                        .forEach(files::add);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return files;
+    }
+
+    private Stream<Event> readMatching(Path file, String key) {
+        var events = new ArrayList<Event>();
+        try (var reader = new BufferedReader(new InputStreamReader(
+                new ZstdInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.contains(key)) {
+                    events.add(jsonUtil.toEvent(line));
+                }
+            }
+        } catch (IOException e) {
+            log.error("Error trying to read archive file {}: ", file, e);
+        }
+        return events.stream().filter(Objects::nonNull);
+    }
+
+    private boolean matches(Event event, EventFilters filters) {
+        if (!isEmpty(filters.getOrderId())) {
+            return filters.getOrderId().equals(event.getOrderId());
+        }
+        return filters.getTransactionId().equals(event.getTransactionId());
+    }
+
+    private void validateArchiveFilters(EventFilters filters, LocalDate startDate, LocalDate endDate) {
+        if (isEmpty(filters.getOrderId()) && isEmpty(filters.getTransactionId())) {
+            throw new ValidationException("Order ID or Transaction ID must be informed");
+        }
+        if (isEmpty(startDate) || isEmpty(endDate) || endDate.isBefore(startDate)) {
+            throw new ValidationException("A valid start date and end date must be informed");
+        }
+    }
+
+    private class ArchivePart {
+        private final List<Object> ids = new ArrayList<>();
+        private LocalDate date;
+        private int sequence;
+        private Path partition;
+        private Path temporary;
+        private Writer writer;
+
+        private boolean isFull(LocalDate eventDate) {
+            return !ids.isEmpty() && (ids.size() >= fileMaxEvents || !eventDate.equals(date));
+        }
+
+        private void add(LocalDate eventDate, Event event, String line) throws IOException {
+            if (writer == null) {
+                open(eventDate);
+            }
+            writer.write(line);
+            writer.write('\n');
+            ids.add(event.getId());
+        }
+
+        private void open(LocalDate eventDate) throws IOException {
+            date = eventDate;
+            partition = Paths.get(directory).resolve(date.format(PARTITION_FORMAT));
+            Files.createDirectories(partition);
+            temporary = partition.resolve(String.format(FILE_PATTERN, System.currentTimeMillis(), sequence++) + ".tmp");
+            writer = new BufferedWriter(new OutputStreamWriter(
+                    new ZstdOutputStream(Files.newOutputStream(temporary)), StandardCharsets.UTF_8));
+        }
+
+        private Path complete() throws IOException {
+            writer.close();
+            writer = null;
+            force(temporary);
+            var name = temporary.getFileName().toString();
+            var file = partition.resolve(name.substring(0, name.length() - ".tmp".length()));
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+            temporary = null;
+            force(partition);
+            return file;
+        }
+
+        private void discard() throws IOException {
+            if (writer == null) {
+                return;
+            }
+            writer.close();
+            writer = null;
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
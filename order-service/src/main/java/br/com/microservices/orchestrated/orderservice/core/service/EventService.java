@@ -3,30 +3,64 @@ package br.com.microservices.orchestrated.orderservice.core.service;
 import br.com.microservices.orchestrated.orderservice.config.exception.ValidationException;
 import br.com.microservices.orchestrated.orderservice.core.document.Event;
 import br.com.microservices.orchestrated.orderservice.core.dto.EventFilters;
+import br.com.microservices.orchestrated.orderservice.core.dto.FinishedEvent;
 import br.com.microservices.orchestrated.orderservice.core.respository.EventRepository;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.springframework.data.mongodb.core.query.Criteria.where;
 import static org.springframework.util.ObjectUtils.isEmpty;
 
 @Slf4j
 @Service
 @AllArgsConstructor
 public class EventService {
+    private static final String ORCHESTRATOR_SOURCE = "ORCHESTRATOR";
+    private static final List<String> FINISHED_STATUSES = List.of("SUCCESS", "FAIL");
+    private static final int EXPORT_BATCH_SIZE = 1000;
+
     private final EventRepository eventRepository;
+    private final MongoTemplate mongoTemplate;
+
+    public void notifyEnding(List<Event> events) {
+        var bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Event.class);
+        var now = LocalDateTime.now();
+
+        events.forEach(event -> bulkOperations.upsert(
+                Query.query(where("transactionId").is(event.getTransactionId())
+                        .and("source").is(event.getSource())
+                        .and("status").is(event.getStatus())),
+                toUpdate(event).setOnInsert("createdAt", now)));
 
-    public void notifyEnding(Event event) {
-        event.setOrderId(event.getOrderId());
-        event.setCreatedAt(LocalDateTime.now());
+        var result = bulkOperations.execute();
+
+        log.info("{} orders with saga notified! Matched: {}, upserted: {}",
+                events.size(), result.getMatchedCount(), result.getUpserts().size());
+    }
 
-        save(event);
+    private Update toUpdate(Event event) {
+        var document = new Document();
+        mongoTemplate.getConverter().write(event, document);
+        document.remove("_id");
+        document.remove("createdAt");
 
-        log.info("Order {} with saga notified! TransactionId: {}", event.getOrderId(), event.getTransactionId());
+        var update = new Update();
+        document.forEach(update::set);
+        return update;
     }
+
     public Event save(Event event) {
         return eventRepository.save(event);
     }
@@ -35,6 +69,24 @@ public class EventService {
         return eventRepository.findAllByOrderByCreatedAtDesc();
     }
 
+    public void exportFinished(LocalDate date, Consumer<FinishedEvent> consumer) {
+        var query = Query
+                .query(where("payload.createdAt").gte(date.atStartOfDay()).lt(date.plusDays(1).atStartOfDay())
+                        .and("source").is(ORCHESTRATOR_SOURCE)
+                        .and("status").in(FINISHED_STATUSES))
+                .with(Sort.by(Sort.Direction.ASC, "transactionId"));
+        query.fields().include("transactionId", "orderId", "status", "payload.totalAmount");
+        query.cursorBatchSize(EXPORT_BATCH_SIZE);
+
+        try (var events = mongoTemplate.stream(query, Event.class)) {
+            events.forEach(event -> consumer.accept(new FinishedEvent(
+                    event.getTransactionId(),
+                    event.getOrderId(),
+                    event.getStatus(),
+                    event.getPayload() == null ? 0.0 : event.getPayload().getTotalAmount())));
+        }
+    }
+
     public Event findByFilters(EventFilters filters) {
         validateFilters(filters);
 
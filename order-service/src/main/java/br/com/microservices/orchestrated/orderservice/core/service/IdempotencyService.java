@@ -0,0 +1,253 @@
+package br.com.microservices.orchestrated.orderservice.core.service;
+
+import br.com.microservices.orchestrated.orderservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.orderservice.core.document.IdempotencyKey;
+import br.com.microservices.orchestrated.orderservice.core.document.Order;
+import br.com.microservices.orchestrated.orderservice.core.respository.IdempotencyKeyRepository;
+import br.com.microservices.orchestrated.orderservice.core.respository.OrderRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.springframework.util.ObjectUtils.isEmpty;
+
+@Slf4j
+@Service
+public class IdempotencyService {
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final OrderRepository orderRepository;
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, CachedOrder> completed;
+    private final long ttlMillis;
+    private final Duration claimLease;
+    private final ScheduledExecutorService leaseRenewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "idempotency-lease-renewer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository,
+                              OrderRepository orderRepository,
+                              @Value("${app.idempotency.cache-size}") int cacheSize,
+                              @Value("${app.idempotency.ttl-hours}") long ttlHours,
+                              @Value("${app.idempotency.claim-lease-seconds}") long claimLeaseSeconds) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.orderRepository = orderRepository;
+        this.ttlMillis = Duration.ofHours(ttlHours).toMillis();
+        this.claimLease = Duration.ofSeconds(claimLeaseSeconds);
+        this.completed = new LinkedHashMap<>(cacheSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedOrder> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    @PreDestroy
+    public void stop() {
+        leaseRenewer.shutdownNow();
+    }
+
+    public Order execute(String key, String request, Function<String, Order> action) {
+        if (isEmpty(key)) {
+            return action.apply(null);
+        }
+        validateKey(key);
+        var requestHash = hash(request);
+
+        var cached = findCached(key, requestHash);
+        if (cached != null) {
+            return cached;
+        }
+
+        var future = new CompletableFuture<Order>();
+        var running = inFlight.putIfAbsent(key, new InFlight(requestHash, future));
+        if (running != null) {
+            checkRequestHash(key, running.requestHash(), requestHash);
+            log.info("Request with Idempotency-Key {} is already in flight, waiting for it.", key);
+            return await(running.future());
+        }
+
+        try {
+            var order = executeOnce(key, requestHash, action);
+            cache(key, requestHash, order);
+            future.complete(order);
+            return order;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    private Order executeOnce(String key, String requestHash, Function<String, Order> action) {
+        var cached = findCached(key, requestHash);
+        if (cached != null) {
+            return cached;
+        }
+        var orderId = new ObjectId().toHexString();
+        if (claim(key, requestHash, orderId)) {
+            return run(key, orderId, action);
+        }
+
+        var claimed = idempotencyKeyRepository
+                .findById(key)
+                .orElseThrow(() -> new ValidationException("Request with this Idempotency-Key failed, please retry: " + key));
+        checkRequestHash(key, claimed.getRequestHash(), requestHash);
+        var persisted = findPersisted(key, requestHash, claimed.getOrderId());
+        if (persisted != null) {
+            return persisted;
+        }
+        if (!takeOverExpiredLease(key)) {
+            throw new ValidationException("Request with this Idempotency-Key is still being processed: " + key);
+        }
+        return run(key, claimed.getOrderId(), action);
+    }
+
+    private Order run(String key, String orderId, Function<String, Order> action) {
+        var renewal = leaseRenewer.scheduleAtFixedRate(() -> extendLease(key),
+                claimLease.toMillis() / 3, claimLease.toMillis() / 3, TimeUnit.MILLISECONDS);
+        try {
+            return action.apply(orderId);
+        } catch (DuplicateKeyException e) {
+            return orderRepository
+                    .findById(orderId)
+                    .orElseThrow(() -> e);
+        } catch (RuntimeException e) {
+            if (!orderRepository.existsById(orderId)) {
+                idempotencyKeyRepository.deleteById(key);
+            }
+            throw e;
+        } finally {
+            renewal.cancel(false);
+        }
+    }
+
+    private void extendLease(String key) {
+        try {
+            idempotencyKeyRepository.extendLease(key, LocalDateTime.now().plus(claimLease));
+        } catch (Exception e) {
+            log.error("Error trying to extend lease for Idempotency-Key {}: ", key, e);
+        }
+    }
+
+    private boolean takeOverExpiredLease(String key) {
+        var now = LocalDateTime.now();
+        var takenOver = idempotencyKeyRepository.takeOverExpiredLease(key, now, now.plus(claimLease)) > 0;
+        if (takenOver) {
+            log.warn("Taking over expired lease for Idempotency-Key {}", key);
+        }
+        return takenOver;
+    }
+
+    private boolean claim(String key, String requestHash, String orderId) {
+        try {
+            idempotencyKeyRepository.insert(buildKey(key, requestHash, orderId));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private Order findPersisted(String key, String requestHash, String orderId) {
+        var order = orderRepository.findById(orderId).orElse(null);
+        if (order != null) {
+            cache(key, requestHash, order);
+        }
+        return order;
+    }
+
+    private void checkRequestHash(String key, String expected, String requestHash) {
+        if (!requestHash.equals(expected)) {
+            throw new ValidationException("Idempotency-Key was already used with a different request: " + key);
+        }
+    }
+
+    private Order await(CompletableFuture<Order> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Order findCached(String key, String requestHash) {
+        CachedOrder cached;
+        synchronized (completed) {
+            cached = completed.get(key);
+            if (cached == null) {
+                return null;
+            }
+            if (cached.expiresAt() < System.currentTimeMillis()) {
+                completed.remove(key);
+                return null;
+            }
+        }
+        checkRequestHash(key, cached.requestHash(), requestHash);
+        return cached.order();
+    }
+
+    private void cache(String key, String requestHash, Order order) {
+        synchronized (completed) {
+            completed.put(key, new CachedOrder(order, requestHash, System.currentTimeMillis() + ttlMillis));
+        }
+    }
+
+    private IdempotencyKey buildKey(String key, String requestHash, String orderId) {
+        var now = LocalDateTime.now();
+        return IdempotencyKey
+                .builder()
+                .key(key)
+                .orderId(orderId)
+                .requestHash(requestHash)
+                .leaseUntil(now.plus(claimLease))
+                .createdAt(now)
+                .build();
+    }
+
+    private String hash(String request) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(request.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void validateKey(String key) {
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new ValidationException("Idempotency-Key must have at most " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    private record CachedOrder(Order order, String requestHash, long expiresAt) {
+    }
+
+    private record InFlight(String requestHash, CompletableFuture<Order> future) {
+    }
+}
@@ -1,45 +1,101 @@
 package br.com.microservices.orchestrated.orderservice.core.service;
 
+import br.com.microservices.orchestrated.orderservice.config.exception.ValidationException;
 import br.com.microservices.orchestrated.orderservice.core.document.Event;
 import br.com.microservices.orchestrated.orderservice.core.document.Order;
 import br.com.microservices.orchestrated.orderservice.core.dto.OrderRequest;
 import br.com.microservices.orchestrated.orderservice.core.producer.SagaProducer;
 import br.com.microservices.orchestrated.orderservice.core.respository.OrderRepository;
 import br.com.microservices.orchestrated.orderservice.core.utils.JsonUtil;
+import br.com.microservices.orchestrated.orderservice.core.utils.TransactionIdGenerator;
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
-import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.List;
 
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@Slf4j
 @Service
 @AllArgsConstructor
 public class OrderService {
-    private static final String TRANSACTION_ID_PATTERN = "%s_%s";
+    private static final String PENDING_STATUS = "PENDING";
 
     private final OrderRepository orderRepository;
     private final JsonUtil jsonUtil;
     private final SagaProducer producer;
     private final EventService eventService;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final MongoTemplate mongoTemplate;
+    private final IdempotencyService idempotencyService;
+
+    public Order createOrder(OrderRequest orderRequest, String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, jsonUtil.toJson(orderRequest), orderId -> createOrder(orderRequest, orderId));
+    }
 
     public Order createOrder(OrderRequest orderRequest) {
+        return createOrder(orderRequest, null);
+    }
+
+    private Order createOrder(OrderRequest orderRequest, String orderId) {
         var order = Order
                 .builder()
+                .id(orderId)
                 .products(orderRequest.getProducts())
+                .customerId(orderRequest.getCustomerId())
                 .createdAt(LocalDateTime.now())
-                .transactionId(
-                    String.format(TRANSACTION_ID_PATTERN, Instant.now().toEpochMilli(), UUID.randomUUID())
-                )
+                .transactionId(transactionIdGenerator.nextTransactionId())
+                .status(PENDING_STATUS)
                 .build();
 
-        orderRepository.save(order);
+        orderRepository.insert(order);
 
         producer.sendEvent(jsonUtil.toJson(createPayload(order)));
 
         return order;
     }
 
+    public Order findById(String id) {
+        return orderRepository
+                .findById(id)
+                .orElseThrow(() -> new ValidationException("Order not found by id: " + id));
+    }
+
+    public void updateOrderSummaries(List<Event> events) {
+        var bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class);
+
+        events.forEach(event -> bulkOperations.updateOne(
+                Query.query(where("_id").is(event.getOrderId())),
+                buildSummaryUpdate(event)
+        ));
+
+        var result = bulkOperations.execute();
+
+        if (result.getMatchedCount() < events.size()) {
+            log.warn("Only {} of {} orders were found to update summary.", result.getMatchedCount(), events.size());
+        }
+    }
+
+    private Update buildSummaryUpdate(Event event) {
+        var update = new Update()
+                .set("status", event.getStatus())
+                .set("source", event.getSource())
+                .set("updatedAt", LocalDateTime.now());
+
+        if (event.getPayload() != null) {
+            update
+                    .set("totalAmount", event.getPayload().getTotalAmount())
+                    .set("totalItems", event.getPayload().getTotalItems());
+        }
+        return update;
+    }
+
     private Event createPayload(Order order) {
         var event = Event
                 .builder()
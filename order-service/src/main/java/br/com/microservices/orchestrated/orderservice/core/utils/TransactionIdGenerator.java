@@ -0,0 +1,97 @@
+package br.com.microservices.orchestrated.orderservice.core.utils;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class TransactionIdGenerator {
+    public static final long EPOCH = 1672531200000L;
+    public static final int ID_LENGTH = 13;
+    public static final int BINARY_LENGTH = Long.BYTES;
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long NODE_MASK = MAX_NODE_ID << SEQUENCE_BITS;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private final long nodeBits;
+    private final AtomicLong lastState = new AtomicLong();
+
+    public TransactionIdGenerator(@Value("${app.transaction-id.node-id:0}") long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Transaction id node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeBits = nodeId << SEQUENCE_BITS;
+    }
+
+    public String nextTransactionId() {
+        return encode(nextId());
+    }
+
+    public long nextId() {
+        var now = System.currentTimeMillis() - EPOCH;
+        while (true) {
+            var previous = lastState.get();
+            var previousTimestamp = previous >>> SEQUENCE_BITS;
+            var next = now > previousTimestamp ? now << SEQUENCE_BITS : previous + 1;
+            if (lastState.compareAndSet(previous, next)) {
+                var timestamp = next >>> SEQUENCE_BITS;
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    public static String encode(long id) {
+        var chars = new char[ID_LENGTH];
+        for (var i = ID_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    public static long decode(String transactionId) {
+        if (transactionId == null || transactionId.length() != ID_LENGTH) {
+            throw new IllegalArgumentException("Invalid transaction id: " + transactionId);
+        }
+        var id = 0L;
+        for (var i = 0; i < ID_LENGTH; i++) {
+            id = (id << 5) | decodeChar(transactionId.charAt(i));
+        }
+        return id;
+    }
+
+    public static byte[] toBytes(String transactionId) {
+        return ByteBuffer.allocate(BINARY_LENGTH).putLong(decode(transactionId)).array();
+    }
+
+    public static String fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != BINARY_LENGTH) {
+            throw new IllegalArgumentException("Binary transaction id must have " + BINARY_LENGTH + " bytes");
+        }
+        return encode(ByteBuffer.wrap(bytes).getLong());
+    }
+
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH;
+    }
+
+    public static long nodeOf(long id) {
+        return (id & NODE_MASK) >>> SEQUENCE_BITS;
+    }
+
+    private static int decodeChar(char c) {
+        var upper = Character.toUpperCase(c);
+        for (var i = 0; i < ALPHABET.length; i++) {
+            if (ALPHABET[i] == upper) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Invalid transaction id character: " + c);
+    }
+}
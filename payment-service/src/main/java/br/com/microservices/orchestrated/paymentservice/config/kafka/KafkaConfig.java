@@ -10,6 +10,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
 
@@ -41,6 +42,12 @@ public class KafkaConfig {
     @Value("${spring.kafka.topic.payment-fail}")
     private String paymentFailTopic;
 
+    @Value("${app.payment.batch.max-size}")
+    private Integer paymentBatchMaxSize;
+
+    @Value("${app.payment.batch.linger-ms}")
+    private Integer paymentBatchLingerMs;
+
     @Bean
     public ConsumerFactory<String, String> consumerFactory() {
         return new DefaultKafkaConsumerFactory<>(consumerProps());
@@ -58,6 +65,18 @@ public class KafkaConfig {
         return props;
     }
 
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> paymentBatchContainerFactory() {
+        var props = consumerProps();
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, paymentBatchMaxSize);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, paymentBatchLingerMs);
+
+        var factory = new ConcurrentKafkaListenerContainerFactory<String, String>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        factory.setBatchListener(true);
+        return factory;
+    }
+
     @Bean
     public ProducerFactory<String, String> producerFactory() {
         return new DefaultKafkaProducerFactory<>(producerProps());
@@ -0,0 +1,138 @@
+package br.com.microservices.orchestrated.paymentservice.core.benchmark;
+
+import br.com.microservices.orchestrated.paymentservice.core.enums.ELedgerEntryType;
+import br.com.microservices.orchestrated.paymentservice.core.enums.EPaymentStatus;
+import br.com.microservices.orchestrated.paymentservice.core.model.Payment;
+import br.com.microservices.orchestrated.paymentservice.core.model.PaymentLedgerEntry;
+import br.com.microservices.orchestrated.paymentservice.core.respository.PaymentLedgerRepository;
+import br.com.microservices.orchestrated.paymentservice.core.respository.PaymentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Component
+@Profile("benchmark")
+@RequiredArgsConstructor
+public class PaymentCreationBenchmark implements ApplicationRunner {
+    private static final String TRANSACTION_PREFIX = "benchmark-";
+    private static final String PRODUCT_LINES = "5:BOOKS:2:990";
+    private static final int TOTAL_ITEMS = 2;
+    private static final long AMOUNT_CENTS = 1980L;
+    private static final double MIN_AMOUNT = 0.1;
+    private static final double CENTS_PER_UNIT = 100.0;
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentLedgerRepository paymentLedgerRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.benchmark.threads}")
+    private int threads;
+
+    @Value("${app.benchmark.duration-seconds}")
+    private long durationSeconds;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        log.info("Payment creation benchmark: {} threads, {}s per path", threads, durationSeconds);
+        try {
+            report("five-round-trips", runWith("legacy", this::createWithRoundTrips));
+            report("single-upsert", runWith("upsert", this::createWithUpsert));
+        } finally {
+            cleanup();
+        }
+    }
+
+    private void createWithRoundTrips(String orderId, String transactionId) {
+        if (paymentRepository.findByOrderIdAndTransactionId(orderId, transactionId).isPresent()) {
+            throw new IllegalStateException("Duplicated benchmark transaction " + transactionId);
+        }
+        paymentRepository.save(Payment
+                .builder()
+                .orderId(orderId)
+                .transactionId(transactionId)
+                .totalItems(TOTAL_ITEMS)
+                .totalAmount(AMOUNT_CENTS / CENTS_PER_UNIT)
+                .orderCreatedAt(LocalDateTime.now())
+                .build());
+        var payment = paymentRepository
+                .findByOrderIdAndTransactionId(orderId, transactionId)
+                .orElseThrow();
+        payment.setStatus(EPaymentStatus.SUCCESS);
+        paymentRepository.save(payment);
+        paymentLedgerRepository.append(List.of(new PaymentLedgerEntry(
+                orderId, transactionId, ELedgerEntryType.CAPTURED, AMOUNT_CENTS, PRODUCT_LINES)));
+    }
+
+    private void createWithUpsert(String orderId, String transactionId) {
+        paymentRepository
+                .createPayment(orderId, transactionId, TOTAL_ITEMS, AMOUNT_CENTS / CENTS_PER_UNIT, AMOUNT_CENTS,
+                        MIN_AMOUNT, EPaymentStatus.SUCCESS.name(), PRODUCT_LINES, LocalDateTime.now(), "")
+                .orElseThrow();
+    }
+
+    private Result runWith(String path, PaymentWriter writer) throws InterruptedException {
+        var created = new LongAdder();
+        var failed = new LongAdder();
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(threads);
+        var deadline = new long[1];
+        for (var i = 0; i < threads; i++) {
+            var prefix = TRANSACTION_PREFIX.concat(path).concat("-").concat(String.valueOf(i)).concat("-");
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (var n = 0L; System.nanoTime() < deadline[0]; n++) {
+                    var key = prefix.concat(String.valueOf(n));
+                    try {
+                        writer.create(key, key);
+                        created.increment();
+                    } catch (Exception e) {
+                        failed.increment();
+                    }
+                }
+            });
+        }
+        var began = System.nanoTime();
+        deadline[0] = began + TimeUnit.SECONDS.toNanos(durationSeconds);
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(durationSeconds + 30, TimeUnit.SECONDS);
+        var elapsed = (System.nanoTime() - began) / 1_000_000_000.0;
+        return new Result(created.sum(), failed.sum(), created.sum() / elapsed);
+    }
+
+    private void report(String path, Result result) {
+        log.info("{} payments={} failures={} throughput={}/s",
+                path, result.created(), result.failed(), String.format("%.1f", result.perSecond()));
+    }
+
+    private void cleanup() {
+        jdbcTemplate.update("DELETE FROM payment_ledger WHERE transaction_id LIKE ?", TRANSACTION_PREFIX.concat("%"));
+        jdbcTemplate.update("DELETE FROM payment WHERE transaction_id LIKE ?", TRANSACTION_PREFIX.concat("%"));
+    }
+
+    @FunctionalInterface
+    private interface PaymentWriter {
+        void create(String orderId, String transactionId);
+    }
+
+    private record Result(long created, long failed, double perSecond) {
+    }
+}
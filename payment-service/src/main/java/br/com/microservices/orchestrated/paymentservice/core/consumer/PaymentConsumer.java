@@ -1,38 +1,115 @@
 package br.com.microservices.orchestrated.paymentservice.core.consumer;
 
+import br.com.microservices.orchestrated.paymentservice.core.dto.ConsumedPosition;
+import br.com.microservices.orchestrated.paymentservice.core.dto.Event;
+import br.com.microservices.orchestrated.paymentservice.core.service.ConsumerOffsetService;
 import br.com.microservices.orchestrated.paymentservice.core.service.PaymentService;
 import br.com.microservices.orchestrated.paymentservice.core.utils.JsonUtil;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
 @Slf4j
 @Component
 @AllArgsConstructor
-public class PaymentConsumer {
+public class PaymentConsumer implements ConsumerSeekAware {
     private final PaymentService paymentService;
     private final JsonUtil jsonUtil;
+    private final ConsumerOffsetService consumerOffsetService;
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
-            topics = "${spring.kafka.topic.payment-success}"
+            topics = "${spring.kafka.topic.payment-success}",
+            autoStartup = "#{!${app.payment.batch.enabled}}"
     )
-    public void consumePaymentSuccessEvent(String payload) {
-        log.info("Receiving event {} from payment-success topic", payload);
-        var event = jsonUtil.toEvent(payload);
+    public void consumePaymentSuccessEvent(ConsumerRecord<String, String> record) {
+        var position = ConsumedPosition.of(record);
+        if (consumerOffsetService.isProcessed(position)) {
+            log.info("Skipping already processed record {}", position);
+            return;
+        }
+        log.info("Receiving event {} from payment-success topic", record.value());
+        var event = jsonUtil.toEvent(record.value());
         log.info(event.toString());
-        paymentService.realizePayment(event);
+        paymentService.realizePayment(event, position);
     }
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
-            topics = "${spring.kafka.topic.payment-fail}"
+            topics = "${spring.kafka.topic.payment-fail}",
+            autoStartup = "#{!${app.payment.batch.enabled}}"
     )
-    public void consumePaymentFailEvent(String payload) {
-        log.info("Receiving event {} from payment-fail topic", payload);
-        var event = jsonUtil.toEvent(payload);
+    public void consumePaymentFailEvent(ConsumerRecord<String, String> record) {
+        var position = ConsumedPosition.of(record);
+        if (consumerOffsetService.isProcessed(position)) {
+            log.info("Skipping already processed record {}", position);
+            return;
+        }
+        log.info("Receiving event {} from payment-fail topic", record.value());
+        var event = jsonUtil.toEvent(record.value());
         log.info(event.toString());
-        paymentService.realizeRefound(event);
+        paymentService.realizeRefound(event, position);
+    }
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.payment-success}",
+            containerFactory = "paymentBatchContainerFactory",
+            autoStartup = "${app.payment.batch.enabled}"
+    )
+    public void consumePaymentSuccessEvents(List<ConsumerRecord<String, String>> records) {
+        log.info("Receiving {} events from payment-success topic", records.size());
+        process(records, paymentService::realizePayments);
+    }
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.payment-fail}",
+            containerFactory = "paymentBatchContainerFactory",
+            autoStartup = "${app.payment.batch.enabled}"
+    )
+    public void consumePaymentFailEvents(List<ConsumerRecord<String, String>> records) {
+        log.info("Receiving {} events from payment-fail topic", records.size());
+        process(records, paymentService::realizeRefounds);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        consumerOffsetService.seekToStoredOffsets(assignments, callback);
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        consumerOffsetService.forget(partitions);
+    }
+
+    private void process(List<ConsumerRecord<String, String>> records,
+                         BiConsumer<List<Event>, List<ConsumedPosition>> handler) {
+        var events = new ArrayList<Event>(records.size());
+        var positions = new ArrayList<ConsumedPosition>(records.size());
+        records.forEach(record -> {
+            var position = ConsumedPosition.of(record);
+            if (consumerOffsetService.isProcessed(position)) {
+                return;
+            }
+            var event = jsonUtil.toEvent(record.value());
+            if (event != null) {
+                events.add(event);
+                positions.add(position);
+            }
+        });
+        if (!events.isEmpty()) {
+            handler.accept(events, positions);
+        }
     }
 }
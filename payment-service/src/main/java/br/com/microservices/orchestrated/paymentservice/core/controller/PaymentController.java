@@ -0,0 +1,65 @@
+package br.com.microservices.orchestrated.paymentservice.core.controller;
+
+import br.com.microservices.orchestrated.paymentservice.core.dto.PaymentPage;
+import br.com.microservices.orchestrated.paymentservice.core.dto.PaymentResponse;
+import br.com.microservices.orchestrated.paymentservice.core.dto.ReconciliationReport;
+import br.com.microservices.orchestrated.paymentservice.core.dto.SettlementReport;
+import br.com.microservices.orchestrated.paymentservice.core.service.PaymentQueryService;
+import br.com.microservices.orchestrated.paymentservice.core.service.ReconciliationService;
+import br.com.microservices.orchestrated.paymentservice.core.service.SettlementAggregator;
+import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping("/api/payment")
+public class PaymentController {
+    private final ReconciliationService reconciliationService;
+    private final SettlementAggregator settlementAggregator;
+    private final PaymentQueryService paymentQueryService;
+
+    @GetMapping
+    public PaymentPage findPage(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+                                @RequestParam(required = false) String cursor,
+                                @RequestParam(defaultValue = "50") int limit) {
+        return paymentQueryService.findPage(startDate, endDate, cursor, limit);
+    }
+
+    @GetMapping("/order/{orderId}")
+    public List<PaymentResponse> findByOrderId(@PathVariable String orderId) {
+        return paymentQueryService.findByOrderId(orderId);
+    }
+
+    @GetMapping("/transaction/{transactionId}")
+    public PaymentResponse findByTransactionId(@PathVariable String transactionId) {
+        return paymentQueryService.findByTransactionId(transactionId);
+    }
+
+    @PostMapping("/reconciliation")
+    public ReconciliationReport reconcile(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return reconciliationService.reconcile(date);
+    }
+
+    @GetMapping("/settlement")
+    public SettlementReport settle(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return settlementAggregator.settle(startDate, endDate == null ? startDate : endDate);
+    }
+
+    @PostMapping("/settlement/backfill")
+    public long backfill(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return settlementAggregator.backfill(startDate, endDate);
+    }
+}
@@ -0,0 +1,10 @@
+package br.com.microservices.orchestrated.paymentservice.core.dto;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+public record ConsumedPosition(String topic, int partition, long offset) {
+
+    public static ConsumedPosition of(ConsumerRecord<?, ?> record) {
+        return new ConsumedPosition(record.topic(), record.partition(), record.offset());
+    }
+}
@@ -19,6 +19,7 @@ public class Order {
     private List<OrderProducts> products;
     private LocalDateTime createdAt;
     private String transactionId;
+    private String customerId;
     private double totalAmount;
     private int totalItems;
 }
@@ -0,0 +1,15 @@
+package br.com.microservices.orchestrated.paymentservice.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentPage {
+    private List<PaymentResponse> content;
+    private String nextCursor;
+}
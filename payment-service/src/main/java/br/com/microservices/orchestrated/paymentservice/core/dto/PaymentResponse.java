@@ -0,0 +1,22 @@
+package br.com.microservices.orchestrated.paymentservice.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentResponse {
+    private Long id;
+    private String orderId;
+    private String transactionId;
+    private int totalItems;
+    private double totalAmount;
+    private String status;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,4 @@
+package br.com.microservices.orchestrated.paymentservice.core.dto;
+
+public record PaymentSnapshot(String orderId, String transactionId, double totalAmount, String status) {
+}
@@ -0,0 +1,18 @@
+package br.com.microservices.orchestrated.paymentservice.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationMismatch {
+    private String type;
+    private String orderId;
+    private String transactionId;
+    private String paymentStatus;
+    private String sagaStatus;
+    private Double paymentAmount;
+    private Double sagaAmount;
+}
@@ -0,0 +1,21 @@
+package br.com.microservices.orchestrated.paymentservice.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationReport {
+    private LocalDate date;
+    private long payments;
+    private long finishedSagas;
+    private long matched;
+    private long mismatches;
+    private String reportFile;
+}
@@ -0,0 +1,17 @@
+package br.com.microservices.orchestrated.paymentservice.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementLine {
+    private String status;
+    private int hour;
+    private String product;
+    private long payments;
+    private long items;
+    private double amount;
+}
@@ -0,0 +1,23 @@
+package br.com.microservices.orchestrated.paymentservice.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementReport {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private double capturedAmount;
+    private double refundedAmount;
+    private double netAmount;
+    private List<SettlementLine> hours;
+    private List<SettlementLine> products;
+}
@@ -2,6 +2,7 @@ package br.com.microservices.orchestrated.paymentservice.core.enums;
 
 public enum EPaymentStatus {
     PENDING,
+    AUTHORIZING,
     SUCCESS,
     REFUND
 }
@@ -0,0 +1,42 @@
+package br.com.microservices.orchestrated.paymentservice.core.gateway;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CircuitBreaker {
+    private final int failureThreshold;
+    private final long openMillis;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openUntil = new AtomicLong();
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    public boolean tryAcquire() {
+        var until = openUntil.get();
+        if (until == 0) {
+            return true;
+        }
+        if (System.currentTimeMillis() < until) {
+            return false;
+        }
+        return trialInFlight.compareAndSet(false, true);
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        openUntil.set(0);
+        trialInFlight.set(false);
+    }
+
+    public void onFailure() {
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold || trialInFlight.get()) {
+            openUntil.set(System.currentTimeMillis() + openMillis);
+        }
+        trialInFlight.set(false);
+    }
+}
@@ -0,0 +1,4 @@
+package br.com.microservices.orchestrated.paymentservice.core.gateway;
+
+public record GatewayRequest(String orderId, String transactionId, long amountCents) {
+}
@@ -0,0 +1,4 @@
+package br.com.microservices.orchestrated.paymentservice.core.gateway;
+
+public record GatewayResponse(boolean approved, String authorizationCode, String message) {
+}
@@ -0,0 +1,7 @@
+package br.com.microservices.orchestrated.paymentservice.core.gateway;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface PaymentGateway {
+    CompletableFuture<GatewayResponse> authorize(GatewayRequest request);
+}
@@ -0,0 +1,90 @@
+package br.com.microservices.orchestrated.paymentservice.core.gateway;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class PaymentGatewayClient {
+    private final PaymentGateway paymentGateway;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final long timeoutMs;
+    private final ThreadPoolExecutor callbackExecutor;
+
+    public PaymentGatewayClient(ObjectProvider<PaymentGateway> paymentGateways,
+                                @Value("${app.payment.gateway.enabled}") boolean enabled,
+                                @Value("${app.payment.gateway.max-in-flight}") int maxInFlight,
+                                @Value("${app.payment.gateway.callback-threads}") int callbackThreads,
+                                @Value("${app.payment.gateway.timeout-ms}") long timeoutMs,
+                                @Value("${app.payment.gateway.circuit-breaker.failure-threshold}") int failureThreshold,
+                                @Value("${app.payment.gateway.circuit-breaker.open-ms}") long openMs) {
+        this.paymentGateway = paymentGateways.getIfAvailable();
+        if (enabled && paymentGateway == null) {
+            throw new IllegalStateException("Payment gateway is enabled but no PaymentGateway is configured.");
+        }
+        this.bulkhead = new Semaphore(maxInFlight);
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openMs);
+        this.timeoutMs = timeoutMs;
+        this.callbackExecutor = new ThreadPoolExecutor(
+                callbackThreads,
+                callbackThreads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxInFlight),
+                runnable -> new Thread(runnable, "payment-gateway-callback"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public Executor callbackExecutor() {
+        return callbackExecutor;
+    }
+
+    public CompletableFuture<GatewayResponse> authorize(GatewayRequest request) {
+        try {
+            bulkhead.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            bulkhead.release();
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Payment gateway circuit breaker is open."));
+        }
+
+        CompletableFuture<GatewayResponse> response;
+        try {
+            response = paymentGateway.authorize(request);
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+
+        return response
+                .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> {
+                    bulkhead.release();
+                    if (error == null) {
+                        circuitBreaker.onSuccess();
+                    } else {
+                        log.error("Error calling payment gateway for transaction {}: {}", request.transactionId(), error.getMessage());
+                        circuitBreaker.onFailure();
+                    }
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        callbackExecutor.shutdown();
+    }
+}
@@ -0,0 +1,61 @@
+package br.com.microservices.orchestrated.paymentservice.core.gateway;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@ConditionalOnProperty(name = "app.payment.gateway.stub.enabled", havingValue = "true")
+public class StubPaymentGateway implements PaymentGateway {
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "payment-gateway-stub");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${app.payment.gateway.stub.latency-ms}")
+    private long latencyMs;
+
+    @Value("${app.payment.gateway.stub.latency-jitter-ms}")
+    private long latencyJitterMs;
+
+    @Value("${app.payment.gateway.stub.error-rate}")
+    private double errorRate;
+
+    @Value("${app.payment.gateway.stub.decline-rate}")
+    private double declineRate;
+
+    @Override
+    public CompletableFuture<GatewayResponse> authorize(GatewayRequest request) {
+        var future = new CompletableFuture<GatewayResponse>();
+        var random = ThreadLocalRandom.current();
+        var delay = latencyMs + (latencyJitterMs > 0 ? random.nextLong(latencyJitterMs + 1) : 0);
+        var outcome = random.nextDouble();
+
+        scheduler.schedule(() -> {
+            if (outcome < errorRate) {
+                future.completeExceptionally(new IllegalStateException("Stub gateway error for transaction "
+                        .concat(request.transactionId())));
+            } else if (outcome < errorRate + declineRate) {
+                future.complete(new GatewayResponse(false, null, "Payment declined by stub gateway."));
+            } else {
+                future.complete(new GatewayResponse(true, UUID.randomUUID().toString(), "Payment approved by stub gateway."));
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+
+        return future;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -14,11 +14,18 @@ import java.time.LocalDateTime;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "payment")
+@Table(
+        name = "payment",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_payment_order_id_transaction_id",
+                columnNames = {"order_id", "transaction_id"}
+        )
+)
 public class Payment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Integer id;
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_seq")
+    @SequenceGenerator(name = "payment_seq", sequenceName = "payment_seq", allocationSize = 50)
+    private Long id;
 
     @Column(nullable = false)
     private String orderId;
@@ -39,15 +46,23 @@ public class Payment {
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime orderCreatedAt;
+
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    @Column(columnDefinition = "TEXT")
+    private String authorizationEvent;
+
     @PrePersist
     public void prePersist() {
         var now = LocalDateTime.now();
         createdAt = now;
         updatedAt = now;
-        status = EPaymentStatus.PENDING;
+        if (status == null) {
+            status = EPaymentStatus.PENDING;
+        }
     }
 
     @PreUpdate
@@ -0,0 +1,10 @@
+package br.com.microservices.orchestrated.paymentservice.core.model;
+
+import br.com.microservices.orchestrated.paymentservice.core.enums.ELedgerEntryType;
+
+public record PaymentLedgerEntry(String orderId,
+                                 String transactionId,
+                                 ELedgerEntryType type,
+                                 long amountCents,
+                                 String productLines) {
+}
@@ -0,0 +1,113 @@
+package br.com.microservices.orchestrated.paymentservice.core.respository;
+
+import br.com.microservices.orchestrated.paymentservice.core.enums.ELedgerEntryType;
+import br.com.microservices.orchestrated.paymentservice.core.model.PaymentLedgerEntry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+@Repository
+@RequiredArgsConstructor
+public class PaymentLedgerRepository {
+    public static final String CURRENT_STATUS = """
+            COALESCE((SELECT CASE l.entry_type WHEN 'AUTHORIZED' THEN 'AUTHORIZING' WHEN 'CAPTURED' THEN 'SUCCESS' ELSE 'REFUND' END
+                      FROM payment_ledger l
+                      WHERE l.order_id = p.order_id AND l.transaction_id = p.transaction_id
+                      ORDER BY l.id DESC
+                      LIMIT 1), p.status) AS status""";
+    private static final String INSERT_ENTRY = """
+            INSERT INTO payment_ledger (order_id, transaction_id, entry_type, amount_cents, product_lines, created_at)
+            VALUES (?, ?, ?, ?, ?, now())
+            """;
+    private static final String SELECT_LATEST_ENTRY_TYPE = """
+            SELECT entry_type
+            FROM payment_ledger
+            WHERE order_id = ? AND transaction_id = ?
+            ORDER BY id DESC
+            LIMIT 1
+            """;
+    private static final String SELECT_LATEST_ENTRY_TYPES = """
+            SELECT DISTINCT ON (order_id, transaction_id) order_id, transaction_id, entry_type
+            FROM payment_ledger
+            WHERE (order_id, transaction_id) IN (SELECT * FROM unnest(?::varchar[], ?::varchar[]))
+            ORDER BY order_id, transaction_id, id DESC
+            """;
+    private static final String SELECT_SETTLED_ENTRIES = """
+            SELECT order_id, transaction_id, entry_type, amount_cents, product_lines, created_at
+            FROM payment_ledger
+            WHERE created_at >= ? AND created_at < ? AND entry_type IN ('CAPTURED', 'REFUNDED')
+            """;
+    private static final String CREATE_PARTITION = """
+            CREATE TABLE IF NOT EXISTS payment_ledger_p%s PARTITION OF payment_ledger
+            FOR VALUES FROM ('%s') TO ('%s')
+            """;
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void append(List<PaymentLedgerEntry> entries) {
+        jdbcTemplate.batchUpdate(INSERT_ENTRY, entries, entries.size(), (statement, entry) -> {
+            statement.setString(1, entry.orderId());
+            statement.setString(2, entry.transactionId());
+            statement.setString(3, entry.type().name());
+            statement.setLong(4, entry.amountCents());
+            statement.setString(5, entry.productLines());
+        });
+    }
+
+    public Map<String, ELedgerEntryType> findLatestEntryTypes(List<String> orderIds, List<String> transactionIds,
+                                                              BiFunction<String, String, String> key) {
+        var types = new HashMap<String, ELedgerEntryType>();
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(SELECT_LATEST_ENTRY_TYPES);
+            statement.setArray(1, connection.createArrayOf("varchar", orderIds.toArray()));
+            statement.setArray(2, connection.createArrayOf("varchar", transactionIds.toArray()));
+            return statement;
+        }, resultSet -> {
+            types.put(key.apply(resultSet.getString("order_id"), resultSet.getString("transaction_id")),
+                    ELedgerEntryType.valueOf(resultSet.getString("entry_type")));
+        });
+        return types;
+    }
+
+    public Optional<ELedgerEntryType> findLatestEntryType(String orderId, String transactionId) {
+        return jdbcTemplate
+                .queryForList(SELECT_LATEST_ENTRY_TYPE, String.class, orderId, transactionId)
+                .stream()
+                .findFirst()
+                .map(ELedgerEntryType::valueOf);
+    }
+
+    public void streamSettledEntries(LocalDate date, BiConsumer<PaymentLedgerEntry, LocalDateTime> consumer) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(SELECT_SETTLED_ENTRIES);
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setTimestamp(1, Timestamp.valueOf(date.atStartOfDay()));
+            statement.setTimestamp(2, Timestamp.valueOf(date.plusDays(1).atStartOfDay()));
+            return statement;
+        }, resultSet -> {
+            consumer.accept(new PaymentLedgerEntry(
+                    resultSet.getString("order_id"),
+                    resultSet.getString("transaction_id"),
+                    ELedgerEntryType.valueOf(resultSet.getString("entry_type")),
+                    resultSet.getLong("amount_cents"),
+                    resultSet.getString("product_lines")),
+                    resultSet.getTimestamp("created_at").toLocalDateTime());
+        });
+    }
+
+    public void createPartition(LocalDate date) {
+        jdbcTemplate.execute(String.format(CREATE_PARTITION,
+                date.toString().replace("-", ""), date, date.plusDays(1)));
+    }
+}
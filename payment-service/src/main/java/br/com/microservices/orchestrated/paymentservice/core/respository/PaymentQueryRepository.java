@@ -0,0 +1,72 @@
+package br.com.microservices.orchestrated.paymentservice.core.respository;
+
+import br.com.microservices.orchestrated.paymentservice.core.dto.PaymentResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public class PaymentQueryRepository {
+    private static final String COLUMNS = "p.id, p.order_id, p.transaction_id, p.total_items, p.total_amount, p.created_at, "
+            + PaymentLedgerRepository.CURRENT_STATUS;
+    private static final String SELECT_BY_ORDER_ID = "SELECT " + COLUMNS + " FROM payment p WHERE p.order_id = ?";
+    private static final String SELECT_BY_TRANSACTION_ID = "SELECT " + COLUMNS + " FROM payment p WHERE p.transaction_id = ?";
+    private static final String SELECT_FIRST_PAGE = "SELECT " + COLUMNS + """
+
+            FROM payment p
+            WHERE p.created_at >= ? AND p.created_at < ?
+            ORDER BY p.created_at, p.id
+            LIMIT ?
+            """;
+    private static final String SELECT_NEXT_PAGE = "SELECT " + COLUMNS + """
+
+            FROM payment p
+            WHERE p.created_at >= ? AND p.created_at < ? AND (p.created_at, p.id) > (?, ?)
+            ORDER BY p.created_at, p.id
+            LIMIT ?
+            """;
+    private static final RowMapper<PaymentResponse> ROW_MAPPER = (resultSet, rowNum) -> PaymentResponse
+            .builder()
+            .id(resultSet.getLong("id"))
+            .orderId(resultSet.getString("order_id"))
+            .transactionId(resultSet.getString("transaction_id"))
+            .totalItems(resultSet.getInt("total_items"))
+            .totalAmount(resultSet.getDouble("total_amount"))
+            .status(resultSet.getString("status"))
+            .createdAt(resultSet.getTimestamp("created_at").toLocalDateTime())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PaymentQueryRepository(@Qualifier("queryDataSource") DataSource queryDataSource,
+                                  @Value("${app.payment.query.timeout-ms}") long timeoutMs) {
+        this.jdbcTemplate = new JdbcTemplate(queryDataSource);
+        this.jdbcTemplate.setQueryTimeout((int) Math.max(1, timeoutMs / 1000));
+    }
+
+    public List<PaymentResponse> findByOrderId(String orderId) {
+        return jdbcTemplate.query(SELECT_BY_ORDER_ID, ROW_MAPPER, orderId);
+    }
+
+    public List<PaymentResponse> findByTransactionId(String transactionId) {
+        return jdbcTemplate.query(SELECT_BY_TRANSACTION_ID, ROW_MAPPER, transactionId);
+    }
+
+    public List<PaymentResponse> findPage(LocalDateTime startDate, LocalDateTime endDate,
+                                          LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        if (afterCreatedAt == null) {
+            return jdbcTemplate.query(SELECT_FIRST_PAGE, ROW_MAPPER,
+                    Timestamp.valueOf(startDate), Timestamp.valueOf(endDate), limit);
+        }
+        return jdbcTemplate.query(SELECT_NEXT_PAGE, ROW_MAPPER,
+                Timestamp.valueOf(startDate), Timestamp.valueOf(endDate),
+                Timestamp.valueOf(afterCreatedAt), afterId, limit);
+    }
+}
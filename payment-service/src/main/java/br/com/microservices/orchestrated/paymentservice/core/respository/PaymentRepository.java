@@ -1,11 +1,68 @@
 package br.com.microservices.orchestrated.paymentservice.core.respository;
 
 import br.com.microservices.orchestrated.paymentservice.core.model.Payment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface PaymentRepository extends JpaRepository<Payment, Integer> {
-    Boolean existsByOrderIdAndTransactionId(String orderId, String transactionId);
+public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Optional<Payment> findByOrderIdAndTransactionId(String orderId, String transactionId);
+    List<Payment> findByTransactionIdIn(Collection<String> transactionIds);
+
+    @Transactional
+    @Query(value = """
+            WITH created AS (
+                INSERT INTO payment (id, order_id, transaction_id, total_items, total_amount, status, created_at, updated_at,
+                                     order_created_at, authorization_event)
+                VALUES (nextval('payment_seq'), :orderId, :transactionId, :totalItems, :totalAmount,
+                        CASE WHEN :totalAmount >= :minAmount THEN :approvedStatus ELSE 'PENDING' END, now(), now(),
+                        :orderCreatedAt,
+                        CASE WHEN :totalAmount >= :minAmount THEN NULLIF(:authorizationEvent, '') END)
+                ON CONFLICT (order_id, transaction_id) DO NOTHING
+                RETURNING order_id, transaction_id, status
+            ), captured AS (
+                INSERT INTO payment_ledger (order_id, transaction_id, entry_type, amount_cents, product_lines, created_at)
+                SELECT order_id, transaction_id, 'CAPTURED', :amountCents, :productLines, now()
+                FROM created
+                WHERE status = 'SUCCESS'
+            )
+            SELECT status FROM created
+            """, nativeQuery = true)
+    Optional<String> createPayment(@Param("orderId") String orderId,
+                                   @Param("transactionId") String transactionId,
+                                   @Param("totalItems") int totalItems,
+                                   @Param("totalAmount") double totalAmount,
+                                   @Param("amountCents") long amountCents,
+                                   @Param("minAmount") double minAmount,
+                                   @Param("approvedStatus") String approvedStatus,
+                                   @Param("productLines") String productLines,
+                                   @Param("orderCreatedAt") LocalDateTime orderCreatedAt,
+                                   @Param("authorizationEvent") String authorizationEvent);
+
+    List<Payment> findByAuthorizationEventIsNotNullAndUpdatedAtBefore(LocalDateTime updatedAt, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE payment SET updated_at = now()
+            WHERE id = :id AND updated_at = :updatedAt AND authorization_event IS NOT NULL
+            """, nativeQuery = true)
+    int retryAuthorization(@Param("id") Long id, @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE payment SET authorization_event = NULL, updated_at = now()
+            WHERE order_id = :orderId AND transaction_id = :transactionId AND authorization_event IS NOT NULL
+            """, nativeQuery = true)
+    int finishAuthorization(@Param("orderId") String orderId, @Param("transactionId") String transactionId);
+
 }
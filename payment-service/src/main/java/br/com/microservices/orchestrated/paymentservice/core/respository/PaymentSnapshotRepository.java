@@ -0,0 +1,39 @@
+package br.com.microservices.orchestrated.paymentservice.core.respository;
+
+import br.com.microservices.orchestrated.paymentservice.core.dto.PaymentSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+@Repository
+@RequiredArgsConstructor
+public class PaymentSnapshotRepository {
+    private static final String SELECT_BY_DAY = "SELECT p.order_id, p.transaction_id, p.total_amount, "
+            + PaymentLedgerRepository.CURRENT_STATUS + """
+
+            FROM payment p
+            WHERE p.order_created_at >= ? AND p.order_created_at < ?
+            ORDER BY p.transaction_id COLLATE "C"
+            """;
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Stream<PaymentSnapshot> streamByDay(LocalDate date) {
+        return jdbcTemplate.queryForStream(connection -> {
+            var statement = connection.prepareStatement(SELECT_BY_DAY);
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setTimestamp(1, Timestamp.valueOf(date.atStartOfDay()));
+            statement.setTimestamp(2, Timestamp.valueOf(date.plusDays(1).atStartOfDay()));
+            return statement;
+        }, (resultSet, rowNum) -> new PaymentSnapshot(
+                resultSet.getString("order_id"),
+                resultSet.getString("transaction_id"),
+                resultSet.getDouble("total_amount"),
+                resultSet.getString("status")));
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.microservices.orchestrated.paymentservice.core.respository;
+
+import br.com.microservices.orchestrated.paymentservice.core.model.ProductPrice;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ProductPriceRepository extends JpaRepository<ProductPrice, Integer> {
+    List<ProductPrice> findByUpdatedAtGreaterThanEqual(LocalDateTime updatedAt);
+}
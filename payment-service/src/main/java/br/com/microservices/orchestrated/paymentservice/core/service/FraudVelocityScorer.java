@@ -0,0 +1,143 @@
+package br.com.microservices.orchestrated.paymentservice.core.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class FraudVelocityScorer {
+    public static final int APPROVED = 0;
+    public static final int ORDER_VELOCITY_EXCEEDED = 1;
+    public static final int AMOUNT_VELOCITY_EXCEEDED = 2;
+
+    private static final int BUCKETS = 60;
+    private static final int STRIPES = 64;
+    private static final long SECOND_MILLIS = 1000L;
+    private static final long MINUTE_MILLIS = 60_000L;
+
+    private final boolean enabled;
+    private final int maxOrdersPerMinute;
+    private final long maxAmountPerHourCents;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public FraudVelocityScorer(@Value("${app.fraud.enabled}") boolean enabled,
+                               @Value("${app.fraud.max-customers}") int maxCustomers,
+                               @Value("${app.fraud.max-orders-per-minute}") int maxOrdersPerMinute,
+                               @Value("${app.fraud.max-amount-per-hour-cents}") long maxAmountPerHourCents) {
+        this.enabled = enabled;
+        this.maxOrdersPerMinute = maxOrdersPerMinute;
+        this.maxAmountPerHourCents = maxAmountPerHourCents;
+        var stripeCapacity = Math.max(1, maxCustomers / STRIPES);
+        for (var i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(stripeCapacity);
+        }
+    }
+
+    public int reserve(String customerId, long amountCents, long nowMillis) {
+        if (!enabled || customerId == null || customerId.isEmpty()) {
+            return APPROVED;
+        }
+        var second = nowMillis / SECOND_MILLIS;
+        var minute = nowMillis / MINUTE_MILLIS;
+        var stripe = stripe(customerId);
+        synchronized (stripe) {
+            var velocity = stripe.computeIfAbsent(customerId, key -> new Velocity());
+            if (velocity.orders(second) + 1 > maxOrdersPerMinute) {
+                return ORDER_VELOCITY_EXCEEDED;
+            }
+            if (velocity.amount(minute) + amountCents > maxAmountPerHourCents) {
+                return AMOUNT_VELOCITY_EXCEEDED;
+            }
+            velocity.record(second, minute, amountCents);
+            return APPROVED;
+        }
+    }
+
+    public void release(String customerId, long amountCents, long reservedAtMillis) {
+        if (!enabled || customerId == null || customerId.isEmpty()) {
+            return;
+        }
+        var stripe = stripe(customerId);
+        synchronized (stripe) {
+            var velocity = stripe.get(customerId);
+            if (velocity != null) {
+                velocity.release(reservedAtMillis / SECOND_MILLIS, reservedAtMillis / MINUTE_MILLIS, amountCents);
+            }
+        }
+    }
+
+    private Stripe stripe(String customerId) {
+        var hash = customerId.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static final class Stripe extends LinkedHashMap<String, Velocity> {
+        private final int capacity;
+
+        private Stripe(int capacity) {
+            super(Math.min(capacity, 1 << 12), 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Velocity> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    private static final class Velocity {
+        private final long[] orderBucketSeconds = new long[BUCKETS];
+        private final int[] orderBucketCounts = new int[BUCKETS];
+        private final long[] amountBucketMinutes = new long[BUCKETS];
+        private final long[] amountBucketSums = new long[BUCKETS];
+
+        private void record(long second, long minute, long amountCents) {
+            var orderBucket = (int) (second % BUCKETS);
+            if (orderBucketSeconds[orderBucket] != second) {
+                orderBucketSeconds[orderBucket] = second;
+                orderBucketCounts[orderBucket] = 0;
+            }
+            orderBucketCounts[orderBucket]++;
+
+            var amountBucket = (int) (minute % BUCKETS);
+            if (amountBucketMinutes[amountBucket] != minute) {
+                amountBucketMinutes[amountBucket] = minute;
+                amountBucketSums[amountBucket] = 0;
+            }
+            amountBucketSums[amountBucket] += amountCents;
+        }
+
+        private void release(long second, long minute, long amountCents) {
+            var orderBucket = (int) (second % BUCKETS);
+            if (orderBucketSeconds[orderBucket] == second && orderBucketCounts[orderBucket] > 0) {
+                orderBucketCounts[orderBucket]--;
+            }
+            var amountBucket = (int) (minute % BUCKETS);
+            if (amountBucketMinutes[amountBucket] == minute) {
+                amountBucketSums[amountBucket] = Math.max(0, amountBucketSums[amountBucket] - amountCents);
+            }
+        }
+
+        private int orders(long second) {
+            var total = 0;
+            for (var i = 0; i < BUCKETS; i++) {
+                if (second - orderBucketSeconds[i] < BUCKETS) {
+                    total += orderBucketCounts[i];
+                }
+            }
+            return total;
+        }
+
+        private long amount(long minute) {
+            var total = 0L;
+            for (var i = 0; i < BUCKETS; i++) {
+                if (minute - amountBucketMinutes[i] < BUCKETS) {
+                    total += amountBucketSums[i];
+                }
+            }
+            return total;
+        }
+    }
+}
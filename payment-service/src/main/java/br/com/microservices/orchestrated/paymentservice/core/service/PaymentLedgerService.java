@@ -0,0 +1,129 @@
+package br.com.microservices.orchestrated.paymentservice.core.service;
+
+import br.com.microservices.orchestrated.paymentservice.core.enums.ELedgerEntryType;
+import br.com.microservices.orchestrated.paymentservice.core.enums.EPaymentStatus;
+import br.com.microservices.orchestrated.paymentservice.core.model.PaymentLedgerEntry;
+import br.com.microservices.orchestrated.paymentservice.core.respository.PaymentLedgerRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+@DependsOn("entityManagerFactory")
+public class PaymentLedgerService {
+    private final PaymentLedgerRepository paymentLedgerRepository;
+    private final int partitionDaysAhead;
+    private final Map<String, EPaymentStatus> currentStatus;
+
+    public PaymentLedgerService(PaymentLedgerRepository paymentLedgerRepository,
+                                @Value("${app.payment.ledger.partition-days-ahead}") int partitionDaysAhead,
+                                @Value("${app.payment.ledger.status-cache-size}") int statusCacheSize) {
+        this.paymentLedgerRepository = paymentLedgerRepository;
+        this.partitionDaysAhead = partitionDaysAhead;
+        this.currentStatus = new LinkedHashMap<>(statusCacheSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, EPaymentStatus> eldest) {
+                return size() > statusCacheSize;
+            }
+        };
+    }
+
+    @PostConstruct
+    public void load() {
+        createPartitions();
+    }
+
+    @Scheduled(cron = "${app.payment.ledger.partition-cron}")
+    public void createPartitions() {
+        var today = LocalDate.now();
+        for (var date = today.minusDays(1); !date.isAfter(today.plusDays(partitionDaysAhead)); date = date.plusDays(1)) {
+            try {
+                paymentLedgerRepository.createPartition(date);
+            } catch (Exception e) {
+                log.error("Error trying to create payment ledger partition for {}: ", date, e);
+            }
+        }
+    }
+
+    @Transactional
+    public void append(List<PaymentLedgerEntry> entries) {
+        if (!entries.isEmpty()) {
+            paymentLedgerRepository.append(entries);
+        }
+    }
+
+    public void project(PaymentLedgerEntry entry) {
+        synchronized (currentStatus) {
+            currentStatus.put(key(entry.orderId(), entry.transactionId()), toStatus(entry.type()));
+        }
+    }
+
+    public EPaymentStatus findCurrentStatus(String orderId, String transactionId) {
+        var key = key(orderId, transactionId);
+        synchronized (currentStatus) {
+            var status = currentStatus.get(key);
+            if (status != null) {
+                return status;
+            }
+        }
+        var status = paymentLedgerRepository
+                .findLatestEntryType(orderId, transactionId)
+                .map(this::toStatus)
+                .orElse(null);
+        if (status != null) {
+            synchronized (currentStatus) {
+                currentStatus.putIfAbsent(key, status);
+            }
+        }
+        return status;
+    }
+
+    public Map<String, EPaymentStatus> findCurrentStatuses(List<String> orderIds, List<String> transactionIds) {
+        var statuses = new HashMap<String, EPaymentStatus>();
+        var missingOrderIds = new ArrayList<String>();
+        var missingTransactionIds = new ArrayList<String>();
+        synchronized (currentStatus) {
+            for (var i = 0; i < orderIds.size(); i++) {
+                var key = key(orderIds.get(i), transactionIds.get(i));
+                var status = currentStatus.get(key);
+                if (status != null) {
+                    statuses.put(key, status);
+                } else {
+                    missingOrderIds.add(orderIds.get(i));
+                    missingTransactionIds.add(transactionIds.get(i));
+                }
+            }
+        }
+        if (!missingOrderIds.isEmpty()) {
+            var loaded = paymentLedgerRepository.findLatestEntryTypes(missingOrderIds, missingTransactionIds, this::key);
+            synchronized (currentStatus) {
+                loaded.forEach((key, type) -> statuses.put(key, currentStatus.computeIfAbsent(key, ignored -> toStatus(type))));
+            }
+        }
+        return statuses;
+    }
+
+    private EPaymentStatus toStatus(ELedgerEntryType type) {
+        return switch (type) {
+            case AUTHORIZED -> EPaymentStatus.AUTHORIZING;
+            case CAPTURED -> EPaymentStatus.SUCCESS;
+            case REFUNDED -> EPaymentStatus.REFUND;
+        };
+    }
+
+    private String key(String orderId, String transactionId) {
+        return orderId.concat(":").concat(transactionId);
+    }
+}
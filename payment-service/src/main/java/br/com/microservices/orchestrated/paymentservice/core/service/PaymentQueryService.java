@@ -0,0 +1,124 @@
+package br.com.microservices.orchestrated.paymentservice.core.service;
+
+import br.com.microservices.orchestrated.paymentservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.paymentservice.core.dto.PaymentPage;
+import br.com.microservices.orchestrated.paymentservice.core.dto.PaymentResponse;
+import br.com.microservices.orchestrated.paymentservice.core.respository.PaymentQueryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.springframework.util.ObjectUtils.isEmpty;
+
+@Service
+public class PaymentQueryService {
+    private static final String ORDER_PREFIX = "order:";
+    private static final String TRANSACTION_PREFIX = "transaction:";
+    private static final String CURSOR_SEPARATOR = "|";
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final PaymentQueryRepository paymentQueryRepository;
+    private final Map<String, List<PaymentResponse>> cache;
+    private long evictions;
+
+    public PaymentQueryService(PaymentQueryRepository paymentQueryRepository,
+                               @Value("${app.payment.query.cache-size}") int cacheSize) {
+        this.paymentQueryRepository = paymentQueryRepository;
+        this.cache = new LinkedHashMap<>(cacheSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<PaymentResponse>> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    public PaymentResponse findByTransactionId(String transactionId) {
+        var payments = findCached(TRANSACTION_PREFIX.concat(transactionId), key ->
+                paymentQueryRepository.findByTransactionId(transactionId));
+        if (payments.isEmpty()) {
+            throw new ValidationException("Payment not found by transactionID.");
+        }
+        return payments.get(0);
+    }
+
+    public List<PaymentResponse> findByOrderId(String orderId) {
+        var payments = findCached(ORDER_PREFIX.concat(orderId), key -> paymentQueryRepository.findByOrderId(orderId));
+        if (payments.isEmpty()) {
+            throw new ValidationException("Payment not found by orderID.");
+        }
+        return payments;
+    }
+
+    public PaymentPage findPage(LocalDateTime startDate, LocalDateTime endDate, String cursor, int limit) {
+        if (!endDate.isAfter(startDate)) {
+            throw new ValidationException("End date must be after start date.");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ValidationException("Limit must be between 1 and ".concat(String.valueOf(MAX_PAGE_SIZE)).concat("."));
+        }
+
+        var after = isEmpty(cursor) ? null : decodeCursor(cursor);
+        var payments = paymentQueryRepository
+                .findPage(startDate, endDate,
+                        after == null ? null : after.createdAt(),
+                        after == null ? null : after.id(),
+                        limit);
+        var nextCursor = payments.size() < limit ? null : encodeCursor(payments.get(payments.size() - 1));
+        return new PaymentPage(payments, nextCursor);
+    }
+
+    public void evict(String orderId, String transactionId) {
+        synchronized (cache) {
+            evictions++;
+            cache.remove(ORDER_PREFIX.concat(orderId));
+            cache.remove(TRANSACTION_PREFIX.concat(transactionId));
+        }
+    }
+
+    private List<PaymentResponse> findCached(String key, Function<String, List<PaymentResponse>> loader) {
+        long evictionsBeforeLoad;
+        synchronized (cache) {
+            var payments = cache.get(key);
+            if (payments != null) {
+                return payments;
+            }
+            evictionsBeforeLoad = evictions;
+        }
+        var payments = loader.apply(key);
+        if (!payments.isEmpty()) {
+            synchronized (cache) {
+                if (evictions == evictionsBeforeLoad) {
+                    cache.put(key, payments);
+                }
+            }
+        }
+        return payments;
+    }
+
+    private String encodeCursor(PaymentResponse payment) {
+        var cursor = payment.getCreatedAt().toString().concat(CURSOR_SEPARATOR).concat(String.valueOf(payment.getId()));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Cursor decodeCursor(String cursor) {
+        try {
+            var decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var separator = decoded.indexOf(CURSOR_SEPARATOR);
+            return new Cursor(
+                    LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new ValidationException("Invalid cursor.");
+        }
+    }
+
+    private record Cursor(LocalDateTime createdAt, long id) {
+    }
+}
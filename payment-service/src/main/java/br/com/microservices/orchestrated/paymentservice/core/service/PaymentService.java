@@ -1,95 +1,391 @@
 package br.com.microservices.orchestrated.paymentservice.core.service;
 
+import br.com.microservices.orchestrated.paymentservice.core.dto.ConsumedPosition;
 import br.com.microservices.orchestrated.paymentservice.core.dto.Event;
 import br.com.microservices.orchestrated.paymentservice.core.dto.History;
-import br.com.microservices.orchestrated.paymentservice.core.dto.OrderProducts;
+import br.com.microservices.orchestrated.paymentservice.core.enums.ELedgerEntryType;
 import br.com.microservices.orchestrated.paymentservice.core.enums.EPaymentStatus;
+import br.com.microservices.orchestrated.paymentservice.core.gateway.GatewayRequest;
+import br.com.microservices.orchestrated.paymentservice.core.gateway.GatewayResponse;
+import br.com.microservices.orchestrated.paymentservice.core.gateway.PaymentGatewayClient;
 import br.com.microservices.orchestrated.paymentservice.core.model.Payment;
+import br.com.microservices.orchestrated.paymentservice.core.model.PaymentLedgerEntry;
 import br.com.microservices.orchestrated.paymentservice.core.producer.KafkaProducer;
 import br.com.microservices.orchestrated.paymentservice.core.respository.PaymentRepository;
 import br.com.microservices.orchestrated.paymentservice.core.utils.JsonUtil;
-import lombok.AllArgsConstructor;
+import br.com.microservices.orchestrated.paymentservice.core.utils.ProductLines;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.common.security.oauthbearer.internals.secured.ValidateException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static br.com.microservices.orchestrated.paymentservice.core.enums.ESagaStatus.*;
 
 @Service
 @Slf4j
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class PaymentService {
     private static final String CURRENT_SOURCE = "PAYMENT_SERVICE";
-    private static final Double REDUCE_SUM_VALUE = 0.0;
-    private static final Double MIN_AMOUNT_VALUE = 0.1;
+    private static final long MIN_AMOUNT_CENTS = 10L;
+    private static final double CENTS_PER_UNIT = 100.0;
+    private static final String DUPLICATED_TRANSACTION_MESSAGE = "There's another transactionId for this validation.";
 
     private final JsonUtil jsonUtil;
     private final KafkaProducer kafkaProducer;
     private final PaymentRepository paymentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final PriceCatalog priceCatalog;
+    private final PaymentGatewayClient paymentGatewayClient;
+    private final FraudVelocityScorer fraudVelocityScorer;
+    private final PaymentLedgerService paymentLedgerService;
+    private final SettlementAggregator settlementAggregator;
+    private final ConsumerOffsetService consumerOffsetService;
+    private final PaymentQueryService paymentQueryService;
 
-    public void realizePayment(Event event) {
+    @Value("${app.payment.gateway.enabled}")
+    private boolean gatewayEnabled;
+
+    @Value("${app.payment.gateway.recovery.stale-ms}")
+    private long authorizationStaleMs;
+
+    @Value("${app.payment.gateway.recovery.batch-size}")
+    private int authorizationRecoveryBatchSize;
+
+    public void realizePayment(Event event, ConsumedPosition position) {
         try{
-            checkCurrentValidation(event);
-            createPendingPayment(event);
-            var payment = findByOrderIdAndTransactionId(event);
-            validateAmount(payment.getTotalAmount());
-            changePaymentToSuccess(payment);
-            handleSuccess(event);
+            createPayment(event, position);
         } catch (Exception e) {
             log.error("Error trying to make payment: ", e.getMessage());
+            consumerOffsetService.save(position);
             handleFail(event, e.getMessage());
+            kafkaProducer.sendEvent(jsonUtil.toJson(event));
+            return;
         }
 
+        finishPayment(event);
+    }
+
+    private void finishPayment(Event event) {
+        if (gatewayEnabled) {
+            authorizePayment(event);
+            return;
+        }
+        handleSuccess(event);
         kafkaProducer.sendEvent(jsonUtil.toJson(event));
     }
 
-    private void checkCurrentValidation(Event event) {
-       if(paymentRepository.existsByOrderIdAndTransactionId(event.getPayload().getId(),
-               event.getTransactionId())) {
-           throw new ValidateException("There's another transactionId for this validation.");
-       }
+    private void authorizePayment(Event event) {
+        var request = new GatewayRequest(
+                event.getPayload().getId(),
+                event.getTransactionId(),
+                Math.round(event.getPayload().getTotalAmount() * CENTS_PER_UNIT));
+
+        paymentGatewayClient
+                .authorize(request)
+                .whenComplete((response, error) -> {
+                    try {
+                        paymentGatewayClient.callbackExecutor().execute(() -> finishAuthorization(event, response, error));
+                    } catch (RejectedExecutionException e) {
+                        log.error("Payment gateway callback queue is full, transaction {} will be recovered later",
+                                event.getTransactionId());
+                    }
+                });
+    }
+
+    private void finishAuthorization(Event event, GatewayResponse response, Throwable error) {
+        try {
+            if (error != null) {
+                throw new ValidateException("Payment gateway unavailable: ".concat(String.valueOf(error.getMessage())));
+            }
+            if (!response.approved()) {
+                throw new ValidateException(response.message());
+            }
+            if (!Boolean.TRUE.equals(transactionTemplate.execute(status -> captureAuthorization(event)))) {
+                return;
+            }
+            handleSuccess(event);
+        } catch (Exception e) {
+            log.error("Error trying to authorize payment: ", e.getMessage());
+            if (!claimAuthorization(event)) {
+                return;
+            }
+            handleFail(event, e.getMessage());
+        }
+        kafkaProducer.sendEvent(jsonUtil.toJson(event));
+    }
+
+    private boolean captureAuthorization(Event event) {
+        if (!claimAuthorization(event)) {
+            return false;
+        }
+        var entries = List.of(
+                ledgerEntry(event, ELedgerEntryType.AUTHORIZED),
+                ledgerEntry(event, ELedgerEntryType.CAPTURED));
+        paymentLedgerService.append(entries);
+        entries.forEach(this::applyEntry);
+        return true;
+    }
+
+    private boolean claimAuthorization(Event event) {
+        if (paymentRepository.finishAuthorization(event.getPayload().getId(), event.getTransactionId()) == 0) {
+            log.info("Authorization for transaction {} was already finished", event.getTransactionId());
+            return false;
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.payment.gateway.recovery.interval-ms}")
+    public void recoverStaleAuthorizations() {
+        if (!gatewayEnabled) {
+            return;
+        }
+        try {
+            var staleBefore = LocalDateTime.now().minus(Duration.ofMillis(authorizationStaleMs));
+            paymentRepository
+                    .findByAuthorizationEventIsNotNullAndUpdatedAtBefore(staleBefore, PageRequest.of(0, authorizationRecoveryBatchSize))
+                    .forEach(payment -> {
+                        if (paymentRepository.retryAuthorization(payment.getId(), payment.getUpdatedAt()) > 0) {
+                            log.warn("Retrying stale authorization for transaction {}", payment.getTransactionId());
+                            authorizePayment(jsonUtil.toEvent(payment.getAuthorizationEvent()));
+                        }
+                    });
+        } catch (Exception e) {
+            log.error("Error trying to recover stale payment authorizations: ", e);
+        }
     }
 
+    private EPaymentStatus approvedStatus() {
+        return gatewayEnabled ? EPaymentStatus.AUTHORIZING : EPaymentStatus.SUCCESS;
+    }
 
-    private void createPendingPayment(Event event) {
+    private void createPayment(Event event, ConsumedPosition position) {
         var totalAmount = calculateAmount(event);
         var totalItems = calculateTotalItems(event);
-        var payment = Payment
-                .builder()
-                .orderId(event.getPayload().getId())
-                .transactionId(event.getTransactionId())
-                .totalAmount(totalAmount)
-                .totalItems(totalItems)
-                .build();
+        setEventAmountItems(event, toUnits(totalAmount), totalItems);
+        var fraudReservation = reserveFraudVelocity(event, totalAmount);
+
+        String status;
+        try {
+            status = consumerOffsetService.executeAndSave(List.of(position), () -> paymentRepository
+                    .createPayment(event.getPayload().getId(), event.getTransactionId(), totalItems,
+                            toUnits(totalAmount), totalAmount, toUnits(MIN_AMOUNT_CENTS), approvedStatus().name(),
+                            ProductLines.encode(event.getPayload().getProducts()),
+                            orderCreatedAt(event),
+                            gatewayEnabled ? jsonUtil.toJson(event) : "")
+                    .orElseThrow(() -> new ValidateException(DUPLICATED_TRANSACTION_MESSAGE)));
+            paymentQueryService.evict(event.getPayload().getId(), event.getTransactionId());
+
+            if (!approvedStatus().name().equals(status)) {
+                validateAmount(totalAmount);
+            }
+        } catch (RuntimeException e) {
+            releaseFraudVelocity(fraudReservation);
+            throw e;
+        }
+        if (EPaymentStatus.SUCCESS.name().equals(status)) {
+            applyEntry(ledgerEntry(event, ELedgerEntryType.CAPTURED));
+        }
+    }
+
+    private void applyEntry(PaymentLedgerEntry entry) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    projectEntry(entry);
+                }
+            });
+            return;
+        }
+        projectEntry(entry);
+    }
+
+    private void projectEntry(PaymentLedgerEntry entry) {
+        paymentLedgerService.project(entry);
+        paymentQueryService.evict(entry.orderId(), entry.transactionId());
+        settlementAggregator.record(entry);
+    }
+
+    private PaymentLedgerEntry ledgerEntry(Event event, ELedgerEntryType type) {
+        return new PaymentLedgerEntry(
+                event.getPayload().getId(),
+                event.getTransactionId(),
+                type,
+                Math.round(event.getPayload().getTotalAmount() * CENTS_PER_UNIT),
+                ProductLines.encode(event.getPayload().getProducts()));
+    }
+
+    public void realizePayments(List<Event> events, List<ConsumedPosition> positions) {
+        List<String> failures;
+        var fraudReservations = new ArrayList<FraudReservation>(events.size());
+        try {
+            failures = transactionTemplate.execute(status -> {
+                consumerOffsetService.save(positions);
+                return createPayments(events, fraudReservations);
+            });
+        } catch (Exception e) {
+            log.error("Error trying to make payments in batch, processing them one by one: ", e);
+            fraudReservations.forEach(this::releaseFraudVelocity);
+            for (var i = 0; i < events.size(); i++) {
+                realizePayment(events.get(i), positions.get(i));
+            }
+            return;
+        }
+        events.forEach(event -> paymentQueryService.evict(event.getPayload().getId(), event.getTransactionId()));
+
+        for (var i = 0; i < events.size(); i++) {
+            var event = events.get(i);
+            if (failures.get(i) == null) {
+                if (!gatewayEnabled) {
+                    applyEntry(ledgerEntry(event, ELedgerEntryType.CAPTURED));
+                }
+                finishPayment(event);
+            } else {
+                handleFail(event, failures.get(i));
+                kafkaProducer.sendEvent(jsonUtil.toJson(event));
+            }
+        }
+    }
+
+    private List<String> createPayments(List<Event> events, List<FraudReservation> fraudReservations) {
+        var processed = findProcessedKeys(events);
+        var payments = new ArrayList<Payment>(events.size());
+        var captured = new ArrayList<PaymentLedgerEntry>(events.size());
+        var failures = new ArrayList<String>(events.size());
 
-        save(payment);
+        events.forEach(event -> {
+            long totalAmount;
+            try {
+                totalAmount = calculateAmount(event);
+            } catch (ValidateException e) {
+                failures.add(e.getMessage());
+                return;
+            }
+            var totalItems = calculateTotalItems(event);
+            setEventAmountItems(event, toUnits(totalAmount), totalItems);
 
-        setEventAmountItems(event, payment);
+            if (!processed.add(paymentKey(event.getPayload().getId(), event.getTransactionId()))) {
+                failures.add(DUPLICATED_TRANSACTION_MESSAGE);
+                return;
+            }
+
+            FraudReservation fraudReservation;
+            try {
+                fraudReservation = reserveFraudVelocity(event, totalAmount);
+            } catch (ValidateException e) {
+                failures.add(e.getMessage());
+                return;
+            }
+
+            var approved = totalAmount >= MIN_AMOUNT_CENTS;
+            if (approved) {
+                fraudReservations.add(fraudReservation);
+            } else {
+                releaseFraudVelocity(fraudReservation);
+            }
+            payments.add(Payment
+                    .builder()
+                    .orderId(event.getPayload().getId())
+                    .transactionId(event.getTransactionId())
+                    .totalAmount(toUnits(totalAmount))
+                    .totalItems(totalItems)
+                    .orderCreatedAt(orderCreatedAt(event))
+                    .status(approved ? approvedStatus() : EPaymentStatus.PENDING)
+                    .authorizationEvent(approved && gatewayEnabled ? jsonUtil.toJson(event) : null)
+                    .build());
+            failures.add(approved ? null : minAmountMessage());
+            if (approved && !gatewayEnabled) {
+                captured.add(ledgerEntry(event, ELedgerEntryType.CAPTURED));
+            }
+        });
+
+        paymentRepository.saveAllAndFlush(payments);
+        paymentLedgerService.append(captured);
+        return failures;
     }
 
-    private double calculateAmount(Event event) {
-        return event
-                .getPayload()
-                .getProducts()
+    private HashSet<String> findProcessedKeys(List<Event> events) {
+        if (consumerOffsetService.isEnabled()) {
+            return new HashSet<>();
+        }
+        return paymentRepository
+                .findByTransactionIdIn(events.stream().map(Event::getTransactionId).toList())
                 .stream()
-                .map(product -> product.getQuantity() * product.getProduct().getUnitValue())
-                .reduce(REDUCE_SUM_VALUE, Double::sum);
+                .map(payment -> paymentKey(payment.getOrderId(), payment.getTransactionId()))
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private String paymentKey(String orderId, String transactionId) {
+        return orderId.concat(":").concat(transactionId);
+    }
+
+    private long calculateAmount(Event event) {
+        var products = event.getPayload().getProducts();
+        var total = 0L;
+        for (var i = 0; i < products.size(); i++) {
+            var product = products.get(i).getProduct();
+            var unitValue = priceCatalog.priceOf(product.getCode());
+            if (unitValue == PriceCatalog.PRICE_NOT_FOUND) {
+                throw new ValidateException("Price not found for product: ".concat(String.valueOf(product.getCode())));
+            }
+            product.setUnitValue(toUnits(unitValue));
+            total = Math.addExact(total, Math.multiplyExact(unitValue, products.get(i).getQuantity()));
+        }
+        return total;
+    }
+
+    private FraudReservation reserveFraudVelocity(Event event, long amountCents) {
+        var reservation = new FraudReservation(event.getPayload().getCustomerId(), amountCents, System.currentTimeMillis());
+        var score = fraudVelocityScorer.reserve(reservation.customerId(), amountCents, reservation.reservedAtMillis());
+        if (score == FraudVelocityScorer.ORDER_VELOCITY_EXCEEDED) {
+            throw new ValidateException("Payment rejected: too many orders for this customer in the last minute.");
+        }
+        if (score == FraudVelocityScorer.AMOUNT_VELOCITY_EXCEEDED) {
+            throw new ValidateException("Payment rejected: amount limit per hour exceeded for this customer.");
+        }
+        return reservation;
+    }
+
+    private void releaseFraudVelocity(FraudReservation reservation) {
+        fraudVelocityScorer.release(reservation.customerId(), reservation.amountCents(), reservation.reservedAtMillis());
+    }
+
+    private LocalDateTime orderCreatedAt(Event event) {
+        var createdAt = event.getPayload().getCreatedAt();
+        return createdAt == null ? LocalDateTime.now() : createdAt;
     }
 
     private int calculateTotalItems(Event event) {
-        return event
-                .getPayload()
-                .getProducts()
-                .stream()
-                .map(OrderProducts::getQuantity)
-                .reduce(REDUCE_SUM_VALUE.intValue(), Integer::sum);
+        var products = event.getPayload().getProducts();
+        var total = 0;
+        for (var i = 0; i < products.size(); i++) {
+            total += products.get(i).getQuantity();
+        }
+        return total;
     }
 
-    private void setEventAmountItems(Event event, Payment payment) {
-        event.getPayload().setTotalAmount(payment.getTotalAmount());
-        event.getPayload().setTotalItems(payment.getTotalItems());
+    private void setEventAmountItems(Event event, double totalAmount, int totalItems) {
+        event.getPayload().setTotalAmount(totalAmount);
+        event.getPayload().setTotalItems(totalItems);
+    }
+
+    private double toUnits(long cents) {
+        return cents / CENTS_PER_UNIT;
     }
 
     private Payment findByOrderIdAndTransactionId(Event event) {
@@ -98,14 +394,13 @@ public class PaymentService {
                 .orElseThrow(() -> new ValidateException("Payment not found by order id and transaction id"));
     }
 
-    private void validateAmount(double amount) {
-        if(amount < MIN_AMOUNT_VALUE)
-            throw new ValidateException("Amount must be greater than ".concat(MIN_AMOUNT_VALUE.toString()));
+    private void validateAmount(long amount) {
+        if(amount < MIN_AMOUNT_CENTS)
+            throw new ValidateException(minAmountMessage());
     }
 
-    private void changePaymentToSuccess(Payment payment) {
-        payment.setStatus(EPaymentStatus.SUCCESS);
-        save(payment);
+    private String minAmountMessage() {
+        return "Amount must be greater than ".concat(String.valueOf(toUnits(MIN_AMOUNT_CENTS)));
     }
 
     private void handleSuccess(Event event) {
@@ -134,26 +429,102 @@ public class PaymentService {
 
     }
 
-    public void realizeRefound(Event event){
+    public void realizeRefound(Event event, ConsumedPosition position){
         event.setStatus(FAIL);
         event.setSource(CURRENT_SOURCE);
         try {
-            changePaymentStatusToRefound(event);
+            consumerOffsetService.executeAndSave(position, () -> changePaymentStatusToRefound(event));
             addHistory(event, "Rollback executed on payment!");
         }catch (Exception e) {
+            consumerOffsetService.save(position);
             addHistory(event, "Rollback not executed on payment: ".concat(e.getMessage()));
         }
         kafkaProducer.sendEvent(jsonUtil.toJson(event));
     }
 
+    public void realizeRefounds(List<Event> events, List<ConsumedPosition> positions) {
+        List<Payment> refounded;
+        var entries = new ArrayList<PaymentLedgerEntry>(events.size());
+        try {
+            refounded = transactionTemplate.execute(status -> {
+                consumerOffsetService.save(positions);
+                return changePaymentsStatusToRefound(events, entries);
+            });
+            entries.forEach(this::applyEntry);
+        } catch (Exception e) {
+            log.error("Error trying to refound payments in batch, processing them one by one: ", e);
+            for (var i = 0; i < events.size(); i++) {
+                realizeRefound(events.get(i), positions.get(i));
+            }
+            return;
+        }
+
+        for (var i = 0; i < events.size(); i++) {
+            var event = events.get(i);
+            var payment = refounded.get(i);
+            if (payment == null) {
+                realizeRefound(event, positions.get(i));
+                continue;
+            }
+            event.setStatus(FAIL);
+            event.setSource(CURRENT_SOURCE);
+            setEventAmountItems(event, payment.getTotalAmount(), payment.getTotalItems());
+            addHistory(event, "Rollback executed on payment!");
+            kafkaProducer.sendEvent(jsonUtil.toJson(event));
+        }
+    }
+
+    private List<Payment> changePaymentsStatusToRefound(List<Event> events, List<PaymentLedgerEntry> entries) {
+        var payments = paymentRepository
+                .findByTransactionIdIn(events.stream().map(Event::getTransactionId).toList())
+                .stream()
+                .collect(Collectors.toMap(
+                        payment -> paymentKey(payment.getOrderId(), payment.getTransactionId()),
+                        Function.identity()));
+
+        var found = payments.values();
+        var statuses = paymentLedgerService.findCurrentStatuses(
+                found.stream().map(Payment::getOrderId).toList(),
+                found.stream().map(Payment::getTransactionId).toList());
+        var refounded = new ArrayList<Payment>(events.size());
+        events.forEach(event -> {
+            var key = paymentKey(event.getPayload().getId(), event.getTransactionId());
+            var payment = payments.get(key);
+            if (payment != null && statuses.getOrDefault(key, payment.getStatus()) == EPaymentStatus.SUCCESS) {
+                entries.add(refundEntry(event, payment));
+                statuses.put(key, EPaymentStatus.REFUND);
+            }
+            refounded.add(payment);
+        });
+
+        paymentLedgerService.append(entries);
+        return refounded;
+    }
+
     private void changePaymentStatusToRefound(Event event){
         var payment = findByOrderIdAndTransactionId(event);
-        payment.setStatus(EPaymentStatus.REFUND);
-        setEventAmountItems(event, payment);
-        save(payment);
+        setEventAmountItems(event, payment.getTotalAmount(), payment.getTotalItems());
+        if (isCaptured(payment)) {
+            var entry = refundEntry(event, payment);
+            paymentLedgerService.append(List.of(entry));
+            applyEntry(entry);
+        }
+    }
+
+    private boolean isCaptured(Payment payment) {
+        var status = paymentLedgerService.findCurrentStatus(payment.getOrderId(), payment.getTransactionId());
+        return (status == null ? payment.getStatus() : status) == EPaymentStatus.SUCCESS;
+    }
+
+    private PaymentLedgerEntry refundEntry(Event event, Payment payment) {
+        return new PaymentLedgerEntry(
+                payment.getOrderId(),
+                payment.getTransactionId(),
+                ELedgerEntryType.REFUNDED,
+                Math.round(payment.getTotalAmount() * CENTS_PER_UNIT),
+                ProductLines.encode(event.getPayload().getProducts()));
     }
 
-    private void save(Payment payment) {
-        paymentRepository.save(payment);
+    private record FraudReservation(String customerId, long amountCents, long reservedAtMillis) {
     }
 }
@@ -0,0 +1,65 @@
+package br.com.microservices.orchestrated.paymentservice.core.service;
+
+import br.com.microservices.orchestrated.paymentservice.core.model.ProductPrice;
+import br.com.microservices.orchestrated.paymentservice.core.respository.ProductPriceRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PriceCatalog {
+    public static final long PRICE_NOT_FOUND = -1L;
+
+    private final ProductPriceRepository productPriceRepository;
+
+    private volatile Map<String, Long> prices = Map.of();
+    private LocalDateTime lastUpdatedAt = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @PostConstruct
+    public void load() {
+        var loaded = productPriceRepository.findAll();
+        apply(new HashMap<>(), loaded);
+        log.info("Price catalog loaded with {} products", loaded.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.price-catalog.refresh-ms}")
+    public void refresh() {
+        try {
+            var changed = productPriceRepository
+                    .findByUpdatedAtGreaterThanEqual(lastUpdatedAt)
+                    .stream()
+                    .filter(price -> !Long.valueOf(price.getUnitValueCents()).equals(prices.get(price.getCode())))
+                    .toList();
+            if (!changed.isEmpty()) {
+                apply(new HashMap<>(prices), changed);
+                log.info("Price catalog refreshed with {} changed products", changed.size());
+            }
+        } catch (Exception e) {
+            log.error("Error trying to refresh price catalog: ", e);
+        }
+    }
+
+    public long priceOf(String code) {
+        var price = prices.get(code);
+        return price == null ? PRICE_NOT_FOUND : price;
+    }
+
+    private synchronized void apply(Map<String, Long> snapshot, List<ProductPrice> changed) {
+        changed.forEach(price -> {
+            snapshot.put(price.getCode(), price.getUnitValueCents());
+            if (price.getUpdatedAt().isAfter(lastUpdatedAt)) {
+                lastUpdatedAt = price.getUpdatedAt();
+            }
+        });
+        prices = Map.copyOf(snapshot);
+    }
+}
@@ -0,0 +1,194 @@
+package br.com.microservices.orchestrated.paymentservice.core.service;
+
+import br.com.microservices.orchestrated.paymentservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.paymentservice.core.dto.FinishedEvent;
+import br.com.microservices.orchestrated.paymentservice.core.dto.PaymentSnapshot;
+import br.com.microservices.orchestrated.paymentservice.core.dto.ReconciliationMismatch;
+import br.com.microservices.orchestrated.paymentservice.core.dto.ReconciliationReport;
+import br.com.microservices.orchestrated.paymentservice.core.enums.EPaymentStatus;
+import br.com.microservices.orchestrated.paymentservice.core.respository.PaymentSnapshotRepository;
+import br.com.microservices.orchestrated.paymentservice.core.utils.JsonUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReconciliationService {
+    private static final String EXPORT_PATH = "/api/event/export?date=";
+    private static final String FILE_PATTERN = "reconciliation-%s.ndjson";
+    private static final String SUCCESS_STATUS = "SUCCESS";
+    private static final String PAYMENT_WITHOUT_SAGA = "PAYMENT_WITHOUT_SAGA";
+    private static final String SAGA_WITHOUT_PAYMENT = "SAGA_WITHOUT_PAYMENT";
+    private static final String STATUS_MISMATCH = "STATUS_MISMATCH";
+    private static final String AMOUNT_MISMATCH = "AMOUNT_MISMATCH";
+    private static final double CENTS_PER_UNIT = 100.0;
+
+    private final PaymentSnapshotRepository paymentSnapshotRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final JsonUtil jsonUtil;
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${app.reconciliation.enabled}")
+    private boolean enabled;
+
+    @Value("${app.reconciliation.order-service-url}")
+    private String orderServiceUrl;
+
+    @Value("${app.reconciliation.directory}")
+    private String directory;
+
+    @Scheduled(cron = "${app.reconciliation.cron}")
+    public void reconcileYesterday() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            var report = reconcile(LocalDate.now().minusDays(1));
+            log.info("Payment reconciliation finished: {}", report);
+        } catch (Exception e) {
+            log.error("Error trying to reconcile payments: ", e);
+        }
+    }
+
+    public ReconciliationReport reconcile(LocalDate date) {
+        if (!running.compareAndSet(false, true)) {
+            throw new ValidationException("A payment reconciliation is already running.");
+        }
+        try {
+            var transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+            return transactionTemplate.execute(status -> reconcileWithinTransaction(date));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private ReconciliationReport reconcileWithinTransaction(LocalDate date) {
+        var reportFile = Paths.get(directory, String.format(FILE_PATTERN, date));
+        try (var payments = paymentSnapshotRepository.streamByDay(date);
+             var events = streamFinishedEvents(date)) {
+            Files.createDirectories(reportFile.getParent());
+            var tempFile = Files.createTempFile(reportFile.getParent(), "reconciliation-", ".tmp");
+            ReconciliationReport report;
+            try (var writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                report = merge(date, payments.iterator(), events.iterator(), writer);
+            }
+            Files.move(tempFile, reportFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            report.setReportFile(reportFile.toString());
+            return report;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ReconciliationReport merge(LocalDate date,
+                                       Iterator<PaymentSnapshot> payments,
+                                       Iterator<FinishedEvent> events,
+                                       BufferedWriter writer) throws IOException {
+        var report = ReconciliationReport.builder().date(date).build();
+        var payment = next(payments);
+        var event = next(events);
+        while (payment != null || event != null) {
+            var comparison = payment == null ? 1 : event == null ? -1
+                    : payment.transactionId().compareTo(event.getTransactionId());
+            ReconciliationMismatch mismatch;
+            if (comparison < 0) {
+                report.setPayments(report.getPayments() + 1);
+                mismatch = new ReconciliationMismatch(PAYMENT_WITHOUT_SAGA, payment.orderId(), payment.transactionId(),
+                        payment.status(), null, payment.totalAmount(), null);
+                payment = next(payments);
+            } else if (comparison > 0) {
+                report.setFinishedSagas(report.getFinishedSagas() + 1);
+                mismatch = SUCCESS_STATUS.equals(event.getStatus())
+                        ? new ReconciliationMismatch(SAGA_WITHOUT_PAYMENT, event.getOrderId(), event.getTransactionId(),
+                        null, event.getStatus(), null, event.getTotalAmount())
+                        : null;
+                event = next(events);
+            } else {
+                report.setPayments(report.getPayments() + 1);
+                report.setFinishedSagas(report.getFinishedSagas() + 1);
+                mismatch = compare(payment, event);
+                payment = next(payments);
+                event = next(events);
+            }
+            if (mismatch == null) {
+                report.setMatched(report.getMatched() + 1);
+            } else {
+                report.setMismatches(report.getMismatches() + 1);
+                writer.write(jsonUtil.toJson(mismatch));
+                writer.newLine();
+            }
+        }
+        return report;
+    }
+
+    private ReconciliationMismatch compare(PaymentSnapshot payment, FinishedEvent event) {
+        var paymentStatus = payment.status();
+        var sagaSucceeded = SUCCESS_STATUS.equals(event.getStatus());
+        var paymentSucceeded = EPaymentStatus.SUCCESS.name().equals(paymentStatus);
+        if (sagaSucceeded != paymentSucceeded) {
+            return new ReconciliationMismatch(STATUS_MISMATCH, payment.orderId(), payment.transactionId(),
+                    paymentStatus, event.getStatus(), payment.totalAmount(), event.getTotalAmount());
+        }
+        if (sagaSucceeded && toCents(payment.totalAmount()) != toCents(event.getTotalAmount())) {
+            return new ReconciliationMismatch(AMOUNT_MISMATCH, payment.orderId(), payment.transactionId(),
+                    paymentStatus, event.getStatus(), payment.totalAmount(), event.getTotalAmount());
+        }
+        return null;
+    }
+
+    private Stream<FinishedEvent> streamFinishedEvents(LocalDate date) throws IOException {
+        var request = HttpRequest
+                .newBuilder(URI.create(orderServiceUrl.concat(EXPORT_PATH).concat(date.toString())))
+                .GET()
+                .build();
+        try {
+            var response = httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
+            if (response.statusCode() != 200) {
+                response.body().close();
+                throw new ValidationException("Order service export failed with status " + response.statusCode());
+            }
+            return response.body()
+                    .filter(line -> !line.isBlank())
+                    .map(line -> jsonUtil.fromJson(line, FinishedEvent.class))
+                    .filter(Objects::nonNull);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while requesting finished events", e);
+        }
+    }
+
+    private <T> T next(Iterator<T> iterator) {
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private long toCents(double amount) {
+        return Math.round(amount * CENTS_PER_UNIT);
+    }
+}
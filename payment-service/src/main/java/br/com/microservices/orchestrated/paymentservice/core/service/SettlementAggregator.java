@@ -0,0 +1,279 @@
+package br.com.microservices.orchestrated.paymentservice.core.service;
+
+import br.com.microservices.orchestrated.paymentservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.paymentservice.core.dto.SettlementLine;
+import br.com.microservices.orchestrated.paymentservice.core.dto.SettlementReport;
+import br.com.microservices.orchestrated.paymentservice.core.model.PaymentLedgerEntry;
+import br.com.microservices.orchestrated.paymentservice.core.respository.PaymentLedgerRepository;
+import br.com.microservices.orchestrated.paymentservice.core.utils.ProductLines;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@DependsOn("entityManagerFactory")
+public class SettlementAggregator {
+    private static final String[] STATUSES = {"SUCCESS", "REFUND"};
+    private static final int CAPTURED_STATUS = 0;
+    private static final int REFUNDED_STATUS = 1;
+    private static final int HOURS = 24;
+    private static final int TOTAL_SLOT = 0;
+    private static final int MERGE_THRESHOLD = 2048;
+    private static final String OTHER_PRODUCTS = "OTHER";
+    private static final double CENTS_PER_UNIT = 100.0;
+
+    private final PaymentLedgerRepository paymentLedgerRepository;
+    private final Map<LocalDate, DaySettlement> days = new ConcurrentHashMap<>();
+    private final Map<String, Integer> productSlots = new ConcurrentHashMap<>();
+    private final AtomicInteger nextProductSlot = new AtomicInteger(TOTAL_SLOT + 1);
+
+    @Value("${app.settlement.max-products}")
+    private int maxProducts;
+
+    @Value("${app.settlement.retention-days}")
+    private int retentionDays;
+
+    @Value("${app.settlement.backfill-days-on-startup}")
+    private int backfillDaysOnStartup;
+
+    private int slots;
+    private int otherSlot;
+    private AtomicReferenceArray<String> slotProducts;
+
+    @PostConstruct
+    public void load() {
+        otherSlot = maxProducts + 1;
+        slots = maxProducts + 2;
+        slotProducts = new AtomicReferenceArray<>(slots);
+        slotProducts.set(otherSlot, OTHER_PRODUCTS);
+        var today = LocalDate.now();
+        var replayed = rebuild(today.minusDays(backfillDaysOnStartup), today);
+        log.info("Settlement buckets loaded with {} ledger entries", replayed);
+    }
+
+    @Scheduled(cron = "${app.settlement.evict-cron}")
+    public void evictExpiredDays() {
+        var oldest = LocalDate.now().minusDays(retentionDays);
+        days.keySet().removeIf(date -> date.isBefore(oldest));
+    }
+
+    public void record(PaymentLedgerEntry entry) {
+        record(entry, LocalDateTime.now());
+    }
+
+    public long backfill(LocalDate startDate, LocalDate endDate) {
+        validateRange(startDate, endDate);
+        if (!endDate.isBefore(LocalDate.now())) {
+            throw new ValidationException("Only closed days can be backfilled.");
+        }
+        return rebuild(startDate, endDate);
+    }
+
+    public SettlementReport settle(LocalDate startDate, LocalDate endDate) {
+        validateRange(startDate, endDate);
+        var settlements = new ArrayList<DaySettlement>();
+        for (var date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            var settlement = days.get(date);
+            if (settlement != null) {
+                settlements.add(settlement);
+            }
+        }
+
+        var cells = cells();
+        var merged = new MergedBuckets(cells);
+        ForkJoinPool.commonPool().invoke(new MergeTask(settlements, merged, 0, cells));
+        return toReport(startDate, endDate, merged);
+    }
+
+    private long rebuild(LocalDate startDate, LocalDate endDate) {
+        var replayed = 0L;
+        for (var date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            var settlement = new DaySettlement(cells());
+            var counter = new long[1];
+            paymentLedgerRepository.streamSettledEntries(date, (entry, createdAt) -> {
+                record(settlement, entry, createdAt.getHour());
+                counter[0]++;
+            });
+            days.put(date, settlement);
+            replayed += counter[0];
+        }
+        return replayed;
+    }
+
+    private void record(PaymentLedgerEntry entry, LocalDateTime at) {
+        var settlement = days.computeIfAbsent(at.toLocalDate(), date -> new DaySettlement(cells()));
+        record(settlement, entry, at.getHour());
+    }
+
+    private void record(DaySettlement settlement, PaymentLedgerEntry entry, int hour) {
+        var status = switch (entry.type()) {
+            case CAPTURED -> CAPTURED_STATUS;
+            case REFUNDED -> REFUNDED_STATUS;
+            default -> -1;
+        };
+        if (status < 0) {
+            return;
+        }
+        var row = (status * HOURS + hour) * slots;
+        var items = new long[1];
+        ProductLines.forEach(entry.productLines(), (code, quantity, unitValueCents) -> {
+            settlement.bucket(row + slotOf(code)).add(quantity, quantity * unitValueCents);
+            items[0] += quantity;
+        });
+        settlement.bucket(row + TOTAL_SLOT).add(items[0], entry.amountCents());
+    }
+
+    private int slotOf(String code) {
+        return productSlots.computeIfAbsent(code, key -> {
+            var slot = nextProductSlot.getAndIncrement();
+            if (slot >= otherSlot) {
+                return otherSlot;
+            }
+            slotProducts.set(slot, key);
+            return slot;
+        });
+    }
+
+    private SettlementReport toReport(LocalDate startDate, LocalDate endDate, MergedBuckets merged) {
+        var hours = new ArrayList<SettlementLine>();
+        var products = new ArrayList<SettlementLine>();
+        var amounts = new long[STATUSES.length];
+        for (var cell = 0; cell < merged.payments.length; cell++) {
+            if (merged.payments[cell] == 0) {
+                continue;
+            }
+            var slot = cell % slots;
+            var status = cell / slots / HOURS;
+            var line = new SettlementLine(
+                    STATUSES[status],
+                    cell / slots % HOURS,
+                    slot == TOTAL_SLOT ? null : slotProducts.get(slot),
+                    merged.payments[cell],
+                    merged.items[cell],
+                    merged.amountCents[cell] / CENTS_PER_UNIT);
+            if (slot == TOTAL_SLOT) {
+                amounts[status] += merged.amountCents[cell];
+                hours.add(line);
+            } else {
+                products.add(line);
+            }
+        }
+        return SettlementReport
+                .builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .capturedAmount(amounts[CAPTURED_STATUS] / CENTS_PER_UNIT)
+                .refundedAmount(amounts[REFUNDED_STATUS] / CENTS_PER_UNIT)
+                .netAmount((amounts[CAPTURED_STATUS] - amounts[REFUNDED_STATUS]) / CENTS_PER_UNIT)
+                .hours(hours)
+                .products(products)
+                .build();
+    }
+
+    private void validateRange(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new ValidationException("End date must not be before start date.");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= retentionDays) {
+            throw new ValidationException("Settlement range must be shorter than ".concat(String.valueOf(retentionDays)).concat(" days."));
+        }
+    }
+
+    private int cells() {
+        return STATUSES.length * HOURS * slots;
+    }
+
+    private static class Bucket {
+        private final LongAdder payments = new LongAdder();
+        private final LongAdder items = new LongAdder();
+        private final LongAdder amountCents = new LongAdder();
+
+        private void add(long quantity, long amount) {
+            payments.increment();
+            items.add(quantity);
+            amountCents.add(amount);
+        }
+    }
+
+    private static class DaySettlement {
+        private final AtomicReferenceArray<Bucket> buckets;
+
+        private DaySettlement(int cells) {
+            this.buckets = new AtomicReferenceArray<>(cells);
+        }
+
+        private Bucket bucket(int cell) {
+            var bucket = buckets.get(cell);
+            if (bucket != null) {
+                return bucket;
+            }
+            var created = new Bucket();
+            var existing = buckets.compareAndExchange(cell, null, created);
+            return existing == null ? created : existing;
+        }
+    }
+
+    private static class MergedBuckets {
+        private final long[] payments;
+        private final long[] items;
+        private final long[] amountCents;
+
+        private MergedBuckets(int cells) {
+            this.payments = new long[cells];
+            this.items = new long[cells];
+            this.amountCents = new long[cells];
+        }
+    }
+
+    private static class MergeTask extends RecursiveAction {
+        private final List<DaySettlement> settlements;
+        private final MergedBuckets merged;
+        private final int from;
+        private final int to;
+
+        private MergeTask(List<DaySettlement> settlements, MergedBuckets merged, int from, int to) {
+            this.settlements = settlements;
+            this.merged = merged;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= MERGE_THRESHOLD) {
+                for (var settlement : settlements) {
+                    for (var cell = from; cell < to; cell++) {
+                        var bucket = settlement.buckets.get(cell);
+                        if (bucket != null) {
+                            merged.payments[cell] += bucket.payments.sum();
+                            merged.items[cell] += bucket.items.sum();
+                            merged.amountCents[cell] += bucket.amountCents.sum();
+                        }
+                    }
+                }
+                return;
+            }
+            var middle = (from + to) >>> 1;
+            invokeAll(new MergeTask(settlements, merged, from, middle), new MergeTask(settlements, merged, middle, to));
+        }
+    }
+}
@@ -25,4 +25,12 @@ public class JsonUtil {
             return null;
         }
     }
+
+    public <T> T fromJson(final String json, final Class<T> type) {
+        try{
+            return objectMapper.readValue(json, type);
+        } catch (Exception e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,61 @@
+package br.com.microservices.orchestrated.paymentservice.core.utils;
+
+import br.com.microservices.orchestrated.paymentservice.core.dto.OrderProducts;
+
+import java.util.List;
+
+public final class ProductLines {
+    private static final char LINE_SEPARATOR = ',';
+    private static final char FIELD_SEPARATOR = ':';
+    private static final double CENTS_PER_UNIT = 100.0;
+
+    private ProductLines() {
+    }
+
+    public static String encode(List<OrderProducts> products) {
+        var builder = new StringBuilder(products.size() * 28);
+        for (var i = 0; i < products.size(); i++) {
+            var line = products.get(i);
+            var code = String.valueOf(line.getProduct().getCode());
+            if (i > 0) {
+                builder.append(LINE_SEPARATOR);
+            }
+            builder
+                    .append(code.length())
+                    .append(FIELD_SEPARATOR)
+                    .append(code)
+                    .append(FIELD_SEPARATOR)
+                    .append(line.getQuantity())
+                    .append(FIELD_SEPARATOR)
+                    .append(Math.round(line.getProduct().getUnitValue() * CENTS_PER_UNIT));
+        }
+        return builder.toString();
+    }
+
+    public static void forEach(String productLines, LineConsumer consumer) {
+        if (productLines == null || productLines.isEmpty()) {
+            return;
+        }
+        var start = 0;
+        while (start < productLines.length()) {
+            var lengthEnd = productLines.indexOf(FIELD_SEPARATOR, start);
+            var codeStart = lengthEnd + 1;
+            var quantityStart = codeStart + Integer.parseInt(productLines, start, lengthEnd, 10) + 1;
+            var valueStart = productLines.indexOf(FIELD_SEPARATOR, quantityStart) + 1;
+            var end = productLines.indexOf(LINE_SEPARATOR, valueStart);
+            if (end < 0) {
+                end = productLines.length();
+            }
+            consumer.accept(
+                    productLines.substring(codeStart, quantityStart - 1),
+                    Integer.parseInt(productLines, quantityStart, valueStart - 1, 10),
+                    Long.parseLong(productLines, valueStart, end, 10));
+            start = end + 1;
+        }
+    }
+
+    @FunctionalInterface
+    public interface LineConsumer {
+        void accept(String code, int quantity, long unitValueCents);
+    }
+}
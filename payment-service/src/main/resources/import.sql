@@ -0,0 +1,13 @@
+INSERT INTO public.product_price (id, code, unit_value_cents, updated_at) VALUES (1, 'COMIC_BOOKS', 1550, now());
+INSERT INTO public.product_price (id, code, unit_value_cents, updated_at) VALUES (2, 'BOOKS', 990, now());
+INSERT INTO public.product_price (id, code, unit_value_cents, updated_at) VALUES (3, 'MOVIES', 556, now());
+INSERT INTO public.product_price (id, code, unit_value_cents, updated_at) VALUES (4, 'MUSIC', 1000, now());
+DROP TABLE IF EXISTS public.payment_ledger CASCADE;
+CREATE TABLE public.payment_ledger (id BIGSERIAL NOT NULL, order_id VARCHAR(255) NOT NULL, transaction_id VARCHAR(255) NOT NULL, entry_type VARCHAR(20) NOT NULL, amount_cents BIGINT NOT NULL, product_lines TEXT, created_at TIMESTAMP NOT NULL, PRIMARY KEY (id, created_at)) PARTITION BY RANGE (created_at);
+CREATE TABLE public.payment_ledger_default PARTITION OF public.payment_ledger DEFAULT;
+CREATE INDEX IF NOT EXISTS idx_payment_ledger_order_transaction ON public.payment_ledger (order_id, transaction_id, id);
+CREATE INDEX IF NOT EXISTS idx_payment_order_id_covering ON public.payment (order_id) INCLUDE (id, transaction_id, total_items, total_amount, status, created_at);
+CREATE INDEX IF NOT EXISTS idx_payment_transaction_id_covering ON public.payment (transaction_id) INCLUDE (id, order_id, total_items, total_amount, status, created_at);
+CREATE INDEX IF NOT EXISTS idx_payment_created_at_id_covering ON public.payment (created_at, id) INCLUDE (order_id, transaction_id, total_items, total_amount, status);
+CREATE INDEX IF NOT EXISTS idx_payment_pending_authorization ON public.payment (updated_at) WHERE authorization_event IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_payment_order_created_at_covering ON public.payment (order_created_at) INCLUDE (order_id, transaction_id, total_amount, status);
@@ -1,27 +1,41 @@
 package br.com.microservices.orchestrated.productvalidationservice.core.consumer;
 
+import br.com.microservices.orchestrated.productvalidationservice.core.dto.ConsumedPosition;
+import br.com.microservices.orchestrated.productvalidationservice.core.service.ConsumerOffsetService;
 import br.com.microservices.orchestrated.productvalidationservice.core.service.ProductValidationService;
 import br.com.microservices.orchestrated.productvalidationservice.core.utils.JsonUtil;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.Map;
+
 @Slf4j
 @Component
 @AllArgsConstructor
-public class ProductValidationConsumer {
+public class ProductValidationConsumer implements ConsumerSeekAware {
     private final JsonUtil jsonUtil;
     private final ProductValidationService productValidationService;
+    private final ConsumerOffsetService consumerOffsetService;
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.product-validation-success}"
     )
-    public void consumeProductValidationSuccessEvent(String payload) {
-        log.info("Receiving event {} from product-validation-success topic", payload);
-        var event = jsonUtil.toEvent(payload);
-        productValidationService.validateExistingProducts(event);
+    public void consumeProductValidationSuccessEvent(ConsumerRecord<String, String> record) {
+        var position = ConsumedPosition.of(record);
+        if (consumerOffsetService.isProcessed(position)) {
+            log.info("Skipping already processed record {}", position);
+            return;
+        }
+        log.info("Receiving event {} from product-validation-success topic", record.value());
+        var event = jsonUtil.toEvent(record.value());
+        productValidationService.validateExistingProducts(event, position);
         log.info(event.toString());
     }
 
@@ -29,10 +43,25 @@ public class ProductValidationConsumer {
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.product-validation-fail}"
     )
-    public void consumeProductValidatioFailEvent(String payload) {
-        log.info("Receiving event {} from product-validation-fail topic", payload);
-        var event = jsonUtil.toEvent(payload);
-        productValidationService.rollbackEvent(event);
+    public void consumeProductValidatioFailEvent(ConsumerRecord<String, String> record) {
+        var position = ConsumedPosition.of(record);
+        if (consumerOffsetService.isProcessed(position)) {
+            log.info("Skipping already processed record {}", position);
+            return;
+        }
+        log.info("Receiving event {} from product-validation-fail topic", record.value());
+        var event = jsonUtil.toEvent(record.value());
+        productValidationService.rollbackEvent(event, position);
         log.info(event.toString());
     }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        consumerOffsetService.seekToStoredOffsets(assignments, callback);
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        consumerOffsetService.forget(partitions);
+    }
 }
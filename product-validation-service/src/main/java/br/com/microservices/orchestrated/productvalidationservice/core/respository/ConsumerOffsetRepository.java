@@ -0,0 +1,22 @@
+package br.com.microservices.orchestrated.productvalidationservice.core.respository;
+
+import br.com.microservices.orchestrated.productvalidationservice.core.model.ConsumerOffset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ConsumerOffsetRepository extends JpaRepository<ConsumerOffset, String> {
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO consumer_offset (id, group_id, topic, partition_number, next_offset, updated_at)
+            VALUES (:id, :groupId, :topic, :partitionNumber, :nextOffset, now())
+            ON CONFLICT (id) DO UPDATE SET next_offset = EXCLUDED.next_offset, updated_at = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    void saveOffset(@Param("id") String id,
+                    @Param("groupId") String groupId,
+                    @Param("topic") String topic,
+                    @Param("partitionNumber") int partitionNumber,
+                    @Param("nextOffset") long nextOffset);
+}
@@ -0,0 +1,107 @@
+package br.com.microservices.orchestrated.productvalidationservice.core.service;
+
+import br.com.microservices.orchestrated.productvalidationservice.core.dto.ConsumedPosition;
+import br.com.microservices.orchestrated.productvalidationservice.core.respository.ConsumerOffsetRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.listener.ConsumerSeekAware.ConsumerSeekCallback;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ConsumerOffsetService {
+    private final ConsumerOffsetRepository consumerOffsetRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, Long> nextOffsets = new ConcurrentHashMap<>();
+
+    @Value("${app.kafka.transactional-offsets.enabled}")
+    private boolean enabled;
+
+    @Value("${spring.kafka.consumer.group-id}")
+    private String groupId;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void seekToStoredOffsets(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        if (!enabled || assignments.isEmpty()) {
+            return;
+        }
+        var keys = assignments.keySet().stream().map(partition -> key(partition.topic(), partition.partition())).toList();
+        consumerOffsetRepository.findAllById(keys).forEach(stored -> {
+            nextOffsets.put(stored.getId(), stored.getNextOffset());
+            callback.seek(stored.getTopic(), stored.getPartitionNumber(), stored.getNextOffset());
+            log.info("Seeking {}-{} to stored offset {}", stored.getTopic(), stored.getPartitionNumber(), stored.getNextOffset());
+        });
+    }
+
+    public void forget(Collection<TopicPartition> partitions) {
+        partitions.forEach(partition -> nextOffsets.remove(key(partition.topic(), partition.partition())));
+    }
+
+    public boolean isProcessed(ConsumedPosition position) {
+        if (!enabled) {
+            return false;
+        }
+        var next = nextOffsets.get(key(position.topic(), position.partition()));
+        return next != null && position.offset() < next;
+    }
+
+    public void executeAndSave(ConsumedPosition position, Runnable action) {
+        executeAndSave(List.of(position), () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public <T> T executeAndSave(List<ConsumedPosition> positions, Supplier<T> action) {
+        if (!enabled) {
+            return action.get();
+        }
+        return transactionTemplate.execute(status -> {
+            save(positions);
+            return action.get();
+        });
+    }
+
+    public void save(ConsumedPosition position) {
+        save(List.of(position));
+    }
+
+    public void save(List<ConsumedPosition> positions) {
+        if (!enabled || positions.isEmpty()) {
+            return;
+        }
+        var latest = new HashMap<String, ConsumedPosition>();
+        positions.forEach(position -> latest.merge(key(position.topic(), position.partition()), position,
+                (current, candidate) -> candidate.offset() > current.offset() ? candidate : current));
+        transactionTemplate.executeWithoutResult(status -> {
+            latest.forEach((key, position) -> consumerOffsetRepository.saveOffset(
+                    key, groupId, position.topic(), position.partition(), position.offset() + 1));
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    latest.forEach((key, position) -> nextOffsets.merge(key, position.offset() + 1, Math::max));
+                }
+            });
+        });
+    }
+
+    private String key(String topic, int partition) {
+        return groupId.concat(":").concat(topic).concat(":").concat(String.valueOf(partition));
+    }
+}
@@ -1,6 +1,7 @@
 package br.com.microservices.orchestrated.productvalidationservice.core.service;
 
 import br.com.microservices.orchestrated.productvalidationservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.productvalidationservice.core.dto.ConsumedPosition;
 import br.com.microservices.orchestrated.productvalidationservice.core.dto.Event;
 import br.com.microservices.orchestrated.productvalidationservice.core.dto.History;
 import br.com.microservices.orchestrated.productvalidationservice.core.dto.OrderProducts;
@@ -30,14 +31,18 @@ public class ProductValidationService {
     private final KafkaProducer kafkaProducer;
     private final ProductRepository productRepository;
     private final ValidationRepository validationRepository;
+    private final ConsumerOffsetService consumerOffsetService;
 
-    public void validateExistingProducts(Event event){
+    public void validateExistingProducts(Event event, ConsumedPosition position){
         try{
-            checkCurrentValidation(event);
-            createValidation(event, true);
+            consumerOffsetService.executeAndSave(position, () -> {
+                checkCurrentValidation(event);
+                createValidation(event, true);
+            });
             handleSuccess(event);
         }catch (Exception e){
             log.error("Error trying to validate products: ", e);
+            consumerOffsetService.save(position);
             handleFail(event, e.getMessage());
         }
 
@@ -46,7 +51,8 @@ public class ProductValidationService {
 
     private void checkCurrentValidation(Event event) {
             validateProductsInformed(event);
-            if(validationRepository.existsByOrderIdAndTransactionId(event.getOrderId(), event.getTransactionId())){
+            if(!consumerOffsetService.isEnabled()
+                    && validationRepository.existsByOrderIdAndTransactionId(event.getOrderId(), event.getTransactionId())){
                 throw new ValidationException("There's another transactionId for this validation.");
             }
             event.getPayload().getProducts().forEach(product -> {
@@ -115,8 +121,8 @@ public class ProductValidationService {
 
     }
 
-    public void rollbackEvent(Event event){
-        changeValidationToFail(event);
+    public void rollbackEvent(Event event, ConsumedPosition position){
+        consumerOffsetService.executeAndSave(position, () -> changeValidationToFail(event));
         event.setStatus(FAIL);
         event.setSource(CURRENT_SOURCE);
         addHistory(event, "Rollback executed on product validation!");